@@ -18,9 +18,28 @@ repositories {
     }
 }
 
+// JavaFX controls jar, only used at build time to extract the constants of modena.css
+val modena: Configuration by configurations.creating {
+    isTransitive = false
+}
+
+// JavaFX graphics jars, only used at build time to extract the named colors of javafx.scene.paint.Color
+val javafxColors: Configuration by configurations.creating {
+    isTransitive = false
+}
+
 // Configure Gradle IntelliJ Plugin
 // Read more: https://plugins.jetbrains.com/docs/intellij/tools-intellij-platform-gradle-plugin.html
 dependencies {
+    modena("org.openjfx:javafx-controls:21.0.2:linux")
+    javafxColors("org.openjfx:javafx-base:21.0.2:linux")
+    javafxColors("org.openjfx:javafx-graphics:21.0.2:linux")
+
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.opentest4j:opentest4j:1.3.0")
+    // the named colors are checked against javafx.scene.paint.Color
+    testImplementation(files(javafxColors))
+
     intellijPlatform {
         create("IU", "2025.1")
         testFramework(org.jetbrains.intellij.platform.gradle.TestFrameworkType.Platform)
@@ -30,6 +49,171 @@ dependencies {
     }
 }
 
+// Extracts the looked-up constants of JavaFX's modena.css into a compact binary resource
+// (format version, count, then name/value pairs), so the plugin can resolve them without
+// scanning the JDK or SDK at runtime. Read by com.dlsc.fxtoolkit.util.BundledConstants.
+val generateModenaConstants by tasks.registering {
+    description = "Extracts the .root constants of modena.css into a binary resource."
+    inputs.files(modena)
+    outputs.dir(layout.buildDirectory.dir("generated/modena"))
+
+    doLast {
+        val jar = inputs.files.singleFile
+        val css = java.util.zip.ZipFile(jar).use { zip ->
+            val entry = zip.getEntry("com/sun/javafx/scene/control/skin/modena/modena.css")
+                ?: throw GradleException("modena.css not found in $jar")
+            zip.getInputStream(entry).bufferedReader().readText()
+        }
+
+        val constants = linkedMapOf<String, String>()
+        val text = Regex("/\\*.*?\\*/", RegexOption.DOT_MATCHES_ALL).replace(css, " ")
+        Regex("([^{}]+)\\{([^{}]*)}").findAll(text).forEach { rule ->
+            val selectors = rule.groupValues[1].split(',').map { it.trim() }
+            if (".root" !in selectors) return@forEach
+            rule.groupValues[2].split(';').forEach { declaration ->
+                val colon = declaration.indexOf(':')
+                val name = if (colon < 0) "" else declaration.substring(0, colon).trim()
+                val value = declaration.substring(colon + 1).trim().replace(Regex("\\s+"), " ")
+                if (name.startsWith("-") && value.isNotEmpty()) {
+                    constants[name.substring(1)] = value
+                }
+            }
+        }
+
+        val target = outputs.files.singleFile.resolve("com/dlsc/fxtoolkit/modena.constants")
+        target.parentFile.mkdirs()
+        java.io.DataOutputStream(target.outputStream().buffered()).use { out ->
+            out.writeInt(1)
+            out.writeInt(constants.size)
+            constants.forEach { (name, value) ->
+                out.writeUTF(name)
+                out.writeUTF(value)
+            }
+        }
+    }
+}
+
+// Generates com.dlsc.fxtoolkit.util.NamedColors, a case-insensitive perfect-hash table of the named colors
+// of javafx.scene.paint.Color as packed ARGB ints, so the plugin neither parses nor allocates to look them up.
+// Names are hashed into buckets, and each bucket gets the first seed that maps all of its names to free slots.
+val generateNamedColors by tasks.registering {
+    description = "Generates the perfect-hash table of the JavaFX named colors."
+    inputs.files(javafxColors)
+    outputs.dir(layout.buildDirectory.dir("generated/namedColors"))
+
+    doLast {
+        val colors = sortedMapOf<String, Int>()
+        java.net.URLClassLoader(inputs.files.map { it.toURI().toURL() }.toTypedArray(), null).use { loader ->
+            val colorClass = loader.loadClass("javafx.scene.paint.Color")
+            fun component(color: Any, getter: String) =
+                Math.round((colorClass.getMethod(getter).invoke(color) as Double) * 255).toInt()
+            colorClass.fields
+                .filter { java.lang.reflect.Modifier.isStatic(it.modifiers) && it.type == colorClass }
+                .forEach { field ->
+                    val color = field.get(null)
+                    colors[field.name.lowercase()] = (component(color, "getOpacity") shl 24) or
+                            (component(color, "getRed") shl 16) or
+                            (component(color, "getGreen") shl 8) or
+                            component(color, "getBlue")
+                }
+        }
+        if (colors.isEmpty()) throw GradleException("No named colors found in javafx.scene.paint.Color")
+
+        // must match NamedColors.hash below
+        fun hash(name: String, seed: Int): Int {
+            var h = seed xor 0x811C9DC5.toInt()
+            for (c in name) {
+                h = (h xor c.lowercaseChar().code) * 0x01000193
+            }
+            h = h xor (h ushr 16)
+            h *= 0x85EBCA6B.toInt()
+            return h xor (h ushr 13)
+        }
+
+        val bucketCount = Integer.highestOneBit(colors.size / 2).coerceAtLeast(1)
+        val slotCount = Integer.highestOneBit(colors.size) * 2
+        val buckets = colors.keys.groupBy { hash(it, 0) and (bucketCount - 1) }
+        val seeds = IntArray(bucketCount)
+        val slots = arrayOfNulls<String>(slotCount)
+        buckets.entries.sortedByDescending { it.value.size }.forEach { (bucket, names) ->
+            var seed = 1
+            while (true) {
+                val targets = names.map { hash(it, seed) and (slotCount - 1) }
+                if (targets.distinct().size == names.size && targets.all { slots[it] == null }) {
+                    names.forEachIndexed { i, name -> slots[targets[i]] = name }
+                    seeds[bucket] = seed
+                    break
+                }
+                seed++
+            }
+        }
+
+        fun hex(value: Int) = "0x" + Integer.toHexString(value).uppercase().padStart(8, '0')
+        val source = """
+            |// Generated by the generateNamedColors task from the named colors of javafx.scene.paint.Color. Do not edit.
+            |package com.dlsc.fxtoolkit.util;
+            |
+            |/**
+            | * A case-insensitive perfect-hash table of the JavaFX named colors, stored as packed ARGB ints.
+            | */
+            |final class NamedColors {
+            |
+            |    private static final int[] SEEDS = {${seeds.joinToString(", ")}};
+            |
+            |    private static final String[] NAMES = {${slots.joinToString(", ") { if (it == null) "null" else "\"$it\"" }}};
+            |
+            |    private static final int[] VALUES = {${slots.joinToString(", ") { hex(if (it == null) 0 else colors.getValue(it)) }}};
+            |
+            |    private NamedColors() {
+            |    }
+            |
+            |    /**
+            |     * Returns the named color in the given range, or {@link ColorConverter#INVALID} if it is not a named color.
+            |     */
+            |    static int lookup(CharSequence text, int start, int end) {
+            |        int seed = SEEDS[hash(text, start, end, 0) & ${bucketCount - 1}];
+            |        int slot = hash(text, start, end, seed) & ${slotCount - 1};
+            |        String name = NAMES[slot];
+            |        if (name == null || name.length() != end - start) {
+            |            return ColorConverter.INVALID;
+            |        }
+            |        for (int i = 0; i < name.length(); i++) {
+            |            if (toLowerAscii(text.charAt(start + i)) != name.charAt(i)) {
+            |                return ColorConverter.INVALID;
+            |            }
+            |        }
+            |        return VALUES[slot];
+            |    }
+            |
+            |    private static int hash(CharSequence text, int start, int end, int seed) {
+            |        int h = seed ^ 0x811C9DC5;
+            |        for (int i = start; i < end; i++) {
+            |            h = (h ^ toLowerAscii(text.charAt(i))) * 0x01000193;
+            |        }
+            |        h ^= h >>> 16;
+            |        h *= 0x85EBCA6B;
+            |        return h ^ (h >>> 13);
+            |    }
+            |
+            |    private static char toLowerAscii(char c) {
+            |        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            |    }
+            |}
+            |""".trimMargin()
+
+        val target = outputs.files.singleFile.resolve("com/dlsc/fxtoolkit/util/NamedColors.java")
+        target.parentFile.mkdirs()
+        target.writeText(source)
+    }
+}
+
+sourceSets {
+    main {
+        java.srcDir(generateNamedColors)
+        resources.srcDir(generateModenaConstants)
+    }
+}
+
 tasks {
     // Set the JVM compatibility versions
     withType<JavaCompile> {
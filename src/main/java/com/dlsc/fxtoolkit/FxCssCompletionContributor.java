@@ -1,24 +1,24 @@
 package com.dlsc.fxtoolkit;
 
-import com.dlsc.fxtoolkit.icon.SvgIcon;
-import com.dlsc.fxtoolkit.util.IconCreator;
+import com.dlsc.fxtoolkit.util.ConstantClassifier;
 import com.intellij.codeInsight.completion.CompletionContributor;
 import com.intellij.codeInsight.completion.CompletionParameters;
 import com.intellij.codeInsight.completion.CompletionProvider;
 import com.intellij.codeInsight.completion.CompletionResultSet;
 import com.intellij.codeInsight.completion.CompletionType;
-import com.intellij.codeInsight.lookup.LookupElementBuilder;
 import com.intellij.lang.css.CSSLanguage;
 import com.intellij.openapi.project.Project;
 import com.intellij.patterns.PlatformPatterns;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ProcessingContext;
 import org.jetbrains.annotations.NotNull;
 
-import javax.swing.Icon;
-import java.awt.geom.Rectangle2D;
-import java.text.DecimalFormat;
-import java.util.Map;
-
+/**
+ * Completes constant references in declaration values. Only constants whose value fits the property
+ * are offered, e.g. only SVG paths for `-fx-shape`; the result's prefix matcher filters them by name.
+ */
 public class FxCssCompletionContributor extends CompletionContributor {
 
     public FxCssCompletionContributor() {
@@ -32,35 +32,17 @@ public class FxCssCompletionContributor extends CompletionContributor {
                         Project project = parameters.getEditor().getProject();
                         if (project == null) return;
 
-                        FxCssService service = FxCssService.getInstance(project);
-                        Map<String, String> constantMap = service.getConstantMap();
-                        DecimalFormat formatter = new DecimalFormat("0.##");
-
-                        for (Map.Entry<String, String> entry : constantMap.entrySet()) {
-                            String name = entry.getKey();
-                            String resolvedValue = service.resolveConstantValue(name);
-
-                            if (resolvedValue == null) continue;
-
-                            String typeText = resolvedValue;
-                            Icon icon = IconCreator.createIcon(resolvedValue, project);
-
-                            // if the icon is an instance of SvgIcon, we can get its bounds
-                            if (icon instanceof SvgIcon) {
-                                Rectangle2D bounds = ((SvgIcon) icon).getBounds();
-                                if (bounds != null && bounds.getWidth() > 0 && bounds.getHeight() > 0) {
-                                    typeText = "W:" + formatter.format(bounds.getWidth()) + " H:" + formatter.format(bounds.getHeight());
-                                }
-                            }
-                            LookupElementBuilder builder = LookupElementBuilder.create("-" + name)
-                                    .withTypeText(typeText, true);
+                        PsiElement position = parameters.getPosition();
+                        CssDeclaration declaration = PsiTreeUtil.getParentOfType(position, CssDeclaration.class);
+                        if (declaration == null) return;
 
-                            if (icon != null) {
-                                builder = builder.withIcon(icon);
-                            }
+                        // constants are values, not property names
+                        PsiElement nameElement = declaration.getPropertyNameElement();
+                        if (nameElement != null && PsiTreeUtil.isAncestor(nameElement, position, false)) return;
 
-                            result.addElement(builder);
-                        }
+                        // the elements are prebuilt and only updated when the constants change
+                        result.addAllElements(FxCssLookupElementCache.getInstance(project).getLookupElements(
+                                ConstantClassifier.kindsForProperty(declaration.getPropertyName())));
                     }
                 });
     }
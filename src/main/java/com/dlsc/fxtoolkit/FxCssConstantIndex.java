@@ -0,0 +1,91 @@
+package com.dlsc.fxtoolkit;
+
+import com.dlsc.fxtoolkit.model.RootConstant;
+import com.dlsc.fxtoolkit.util.RootConstantScanner;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A persistent index that maps the name of every constant declared inside a `.root` block
+ * (without the leading dash) to its raw value and declaration offset.
+ * <p>
+ * The index is maintained by the platform's incremental indexer and survives IDE restarts,
+ * so the {@link FxCssService} never has to parse stylesheets itself. The content is read by
+ * the {@link RootConstantScanner}, so no PSI is built while indexing.
+ */
+public final class FxCssConstantIndex extends FileBasedIndexExtension<String, RootConstant> {
+
+    public static final ID<String, RootConstant> NAME = ID.create("com.dlsc.fxtoolkit.rootConstants");
+
+    /**
+     * The version of the indexed data. The persisted state of the {@link FxCssService} is recorded with
+     * it as well, so both are discarded together when the way values are read changes.
+     */
+    static final int VERSION = 2;
+
+    @Override
+    public @NotNull ID<String, RootConstant> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, RootConstant, FileContent> getIndexer() {
+        return inputData -> RootConstantScanner.scan(inputData.getContentAsText());
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<RootConstant> getValueExternalizer() {
+        return RootConstantExternalizer.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+        return file -> "css".equalsIgnoreCase(file.getExtension());
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    private static final class RootConstantExternalizer implements DataExternalizer<RootConstant> {
+
+        static final RootConstantExternalizer INSTANCE = new RootConstantExternalizer();
+
+        @Override
+        public void save(@NotNull DataOutput out, RootConstant value) throws IOException {
+            IOUtil.writeUTF(out, value.value());
+            DataInputOutputUtil.writeINT(out, value.offset());
+        }
+
+        @Override
+        public RootConstant read(@NotNull DataInput in) throws IOException {
+            String value = IOUtil.readUTF(in);
+            int offset = DataInputOutputUtil.readINT(in);
+            return new RootConstant(value, offset);
+        }
+    }
+}
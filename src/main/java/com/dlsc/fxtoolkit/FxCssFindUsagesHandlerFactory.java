@@ -0,0 +1,27 @@
+package com.dlsc.fxtoolkit;
+
+import com.dlsc.fxtoolkit.util.CssPsiUtil;
+import com.intellij.find.findUsages.FindUsagesHandler;
+import com.intellij.find.findUsages.FindUsagesHandlerFactory;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.css.CssDeclaration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Enables Find Usages on constants declared in `.root` blocks. The usages themselves are
+ * contributed by the {@link FxCssReferencesSearcher}.
+ */
+public class FxCssFindUsagesHandlerFactory extends FindUsagesHandlerFactory {
+
+    @Override
+    public boolean canFindUsages(@NotNull PsiElement element) {
+        return element instanceof CssDeclaration declaration && CssPsiUtil.getDeclaredConstantName(declaration) != null;
+    }
+
+    @Override
+    public @Nullable FindUsagesHandler createFindUsagesHandler(@NotNull PsiElement element, boolean forHighlightUsages) {
+        return new FindUsagesHandler(element) {
+        };
+    }
+}
@@ -6,9 +6,11 @@ import com.dlsc.fxtoolkit.components.SvgResizePreviewPanel;
 import com.dlsc.fxtoolkit.icon.ColorIcon;
 import com.dlsc.fxtoolkit.icon.GradientIcon;
 import com.dlsc.fxtoolkit.icon.SvgIcon;
+import com.dlsc.fxtoolkit.model.ConstantTable;
 import com.dlsc.fxtoolkit.model.GradientInfo;
 import com.dlsc.fxtoolkit.model.Size2D;
 import com.dlsc.fxtoolkit.util.ColorConverter;
+import com.dlsc.fxtoolkit.util.CssPsiUtil;
 import com.dlsc.fxtoolkit.util.IconCreator;
 import com.intellij.codeInsight.daemon.GutterIconNavigationHandler;
 import com.intellij.codeInsight.daemon.LineMarkerInfo;
@@ -16,6 +18,8 @@ import com.intellij.codeInsight.daemon.LineMarkerProvider;
 import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.markup.GutterIconRenderer;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.popup.JBPopup;
 import com.intellij.openapi.ui.popup.JBPopupFactory;
@@ -24,7 +28,9 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.css.CssBlock;
 import com.intellij.psi.css.CssDeclaration;
 import com.intellij.psi.css.CssRuleset;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.ui.awt.RelativePoint;
+import com.intellij.util.Function;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -32,6 +38,10 @@ import javax.swing.Icon;
 import java.awt.Color;
 import java.awt.event.MouseEvent;
 import java.text.DecimalFormat;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -57,18 +67,75 @@ import java.util.regex.Pattern;
  *
  * <p>
  * Icons are only shown if the declaration resolves to a recognizable and previewable value.
+ * They are created in batches on the slow pass, so typing is never delayed by icon work.
  * Raw color literals (like `#ff0000`) are skipped intentionally to reduce clutter.
  * </p>
+ * <p>
+ * For constants declared in a `.root` block, the tooltip shows how often the constant is used.
+ * The count is read from the {@link FxCssUsageIndex} only when the tooltip is shown, so a highlighting
+ * pass never runs one index query per constant.
+ * </p>
  */
 public class FxCssLineMarkerProvider implements LineMarkerProvider {
 
+    /**
+     * Icons are never created on the fast pass, which runs while typing. See {@link #collectSlowLineMarkers}.
+     */
     @Override
     public @Nullable LineMarkerInfo<?> getLineMarkerInfo(@NotNull PsiElement element) {
-        if (!(element instanceof CssDeclaration decl)) {
-            return null;
+        return null;
+    }
+
+    /**
+     * Creates the markers of all declarations in one batch. All values are resolved against the same
+     * snapshot of the constant table, and declarations with the same resolved value share one icon.
+     */
+    @Override
+    public void collectSlowLineMarkers(@NotNull List<? extends PsiElement> elements,
+                                       @NotNull Collection<? super LineMarkerInfo<?>> result) {
+        Project project = null;
+        ConstantTable table = null;
+        int iconSize = 0;
+        Map<String, Icon> iconsByValue = new HashMap<>();
+
+        for (PsiElement element : elements) {
+            ProgressManager.checkCanceled();
+            if (!(element instanceof CssDeclaration decl)) {
+                continue;
+            }
+            if (table == null) {
+                project = decl.getProject();
+                table = FxCssService.getInstance(project).getSnapshot();
+                iconSize = IconCreator.getIconSize(project);
+            }
+
+            String resolvedValue = resolveValue(decl, table);
+            if (resolvedValue == null) {
+                continue;
+            }
+
+            Icon icon;
+            if (iconsByValue.containsKey(resolvedValue)) {
+                icon = iconsByValue.get(resolvedValue);
+            } else {
+                icon = IconCreator.createIcon(resolvedValue, project, table, iconSize);
+                iconsByValue.put(resolvedValue, icon);
+            }
+
+            if (icon != null) {
+                String constantName = CssPsiUtil.getDeclaredConstantName(decl);
+                LineMarkerInfo<?> info = createLineMarker(decl, icon, resolvedValue, constantName);
+                if (info != null) {
+                    result.add(info);
+                }
+            }
         }
+    }
 
-        Project project = decl.getProject();
+    /**
+     * Returns the value to preview for the given declaration, or null if there is nothing to preview.
+     */
+    private static @Nullable String resolveValue(@NotNull CssDeclaration decl, @NotNull ConstantTable table) {
         String rawValue = decl.getValue() != null ? decl.getValue().getText().trim() : "";
         if (rawValue.isEmpty()) {
             return null;
@@ -79,52 +146,48 @@ public class FxCssLineMarkerProvider implements LineMarkerProvider {
             return null;
         }
 
-        String resolvedValue;
-        if (rawValue.startsWith("-")) {
-            resolvedValue = FxCssService.getInstance(project).resolveConstantValue(rawValue.substring(1));
-        } else {
-            resolvedValue = rawValue;
-        }
+        String resolvedValue = rawValue.startsWith("-") ? table.resolve(rawValue.substring(1)) : rawValue;
+        return resolvedValue == null || resolvedValue.isEmpty() ? null : resolvedValue;
+    }
 
-        if (resolvedValue == null || resolvedValue.isEmpty()) {
+    private static @Nullable LineMarkerInfo<?> createLineMarker(@NotNull CssDeclaration decl, @NotNull Icon icon,
+                                                                @NotNull String resolvedValue, @Nullable String constantName) {
+        PsiElement anchor = decl.getPropertyNameElement() != null ? decl.getPropertyNameElement() : decl;
+
+        String accessibleName;
+        GutterIconNavigationHandler<PsiElement> handler;
+        if (icon instanceof SvgIcon) {
+            accessibleName = "Click to preview svg";
+            handler = new SvgPreviewNavigationHandler((SvgIcon) icon, decl);
+        } else if (icon instanceof GradientIcon) {
+            accessibleName = "Click to preview gradient";
+            handler = new GradientPreviewNavigationHandler((GradientIcon) icon);
+        } else if (icon instanceof ColorIcon) {
+            accessibleName = "Click to preview color";
+            handler = new ColorPreviewNavigationHandler((ColorIcon) icon, resolvedValue);
+        } else {
             return null;
         }
 
-        Icon icon = IconCreator.createIcon(resolvedValue, project);
-
-        if (icon != null) {
-            PsiElement anchor = decl.getPropertyNameElement() != null ? decl.getPropertyNameElement() : element;
-
-            String accessibleName;
-            GutterIconNavigationHandler<PsiElement> handler = null;
-            if (icon instanceof SvgIcon) {
-                accessibleName = "Click to preview svg";
-                handler = new SvgPreviewNavigationHandler((SvgIcon) icon, decl);
-            } else if (icon instanceof GradientIcon) {
-                accessibleName = "Click to preview gradient";
-                handler = new GradientPreviewNavigationHandler((GradientIcon) icon);
-            } else if (icon instanceof ColorIcon) {
-                accessibleName = "Click to preview color";
-                handler = new ColorPreviewNavigationHandler((ColorIcon) icon, resolvedValue);
-            } else {
-                accessibleName = "";
-            }
+        Function<PsiElement, String> tooltipProvider = constantName != null ? elt -> usageTooltip(elt.getProject(), constantName) : null;
 
-            if (handler != null) {
-                return new LineMarkerInfo<>(anchor, anchor.getTextRange(), icon, null, handler, GutterIconRenderer.Alignment.CENTER, () -> accessibleName);
-            }
-        }
-
-        return null;
+        return new LineMarkerInfo<>(anchor, anchor.getTextRange(), icon, tooltipProvider, handler, GutterIconRenderer.Alignment.CENTER, () -> accessibleName);
     }
 
-    private boolean isInRootBlock(PsiElement element) {
-        CssRuleset ruleset = com.intellij.psi.util.PsiTreeUtil.getParentOfType(element, CssRuleset.class);
-        if (ruleset != null) {
-            String selectorsText = ruleset.getSelectorList().getText();
-            return selectorsText.equals(".root") || selectorsText.startsWith(".root ");
+    /**
+     * Returns the usage count of the given constant as tooltip text. Queries the index, so it is only called
+     * when the tooltip is shown.
+     */
+    private static @Nullable String usageTooltip(Project project, String constantName) {
+        if (DumbService.isDumb(project)) {
+            return null;
         }
-        return false;
+        int count = FxCssUsageIndex.countUsages(project, constantName, GlobalSearchScope.allScope(project));
+        return switch (count) {
+            case 0 -> "No usages";
+            case 1 -> "1 usage";
+            default -> count + " usages";
+        };
     }
 
     private record ColorPreviewNavigationHandler(ColorIcon icon, String originalDefinition)
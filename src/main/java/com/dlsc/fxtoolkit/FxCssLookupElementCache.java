@@ -0,0 +1,220 @@
+package com.dlsc.fxtoolkit;
+
+import com.dlsc.fxtoolkit.icon.SvgIcon;
+import com.dlsc.fxtoolkit.model.ConstantKind;
+import com.dlsc.fxtoolkit.model.ConstantTable;
+import com.dlsc.fxtoolkit.util.ColorConverter;
+import com.dlsc.fxtoolkit.util.ConstantClassifier;
+import com.dlsc.fxtoolkit.util.IconCreator;
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.ui.EmptyIcon;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.Icon;
+import java.awt.geom.Rectangle2D;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the completion lookup elements of all constants, with their icons and type texts, ready for use.
+ * <p>
+ * The elements are updated when a new snapshot of the constant table is published. The update is
+ * incremental: only the constants the snapshot invalidated since the last update are resolved again,
+ * and the element of a constant whose resolved value and color did not change is reused as is, so only
+ * new and changed constants create icons again. Gradient and SVG icons are not created during the update
+ * at all, but rendered asynchronously once the popup shows the element.
+ * <p>
+ * Every constant is classified by the kind of its resolved value, so a completion request only offers the
+ * constants that fit the property. Matching the typed prefix is left to the completion's prefix matcher.
+ */
+@Service(Service.Level.PROJECT)
+public final class FxCssLookupElementCache {
+
+    private final Project project;
+
+    private volatile Elements elements = new Elements(null, 0, new String[0], new Entry[0]);
+
+    public FxCssLookupElementCache(Project project) {
+        this.project = project;
+    }
+
+    public static FxCssLookupElementCache getInstance(@NotNull Project project) {
+        return project.getService(FxCssLookupElementCache.class);
+    }
+
+    /**
+     * Returns the lookup elements of the resolvable constants of the latest snapshot whose value is of one
+     * of the given kinds.
+     *
+     * @param kinds the accepted kinds, or null to accept any kind
+     */
+    public @NotNull List<LookupElement> getLookupElements(@Nullable Set<ConstantKind> kinds) {
+        Elements current = getElements();
+        List<LookupElement> result = new ArrayList<>(current.entries().length);
+        for (Entry entry : current.entries()) {
+            if (kinds == null || kinds.contains(entry.kind())) {
+                result.add(entry.element());
+            }
+        }
+        return result;
+    }
+
+    private Elements getElements() {
+        ConstantTable table = FxCssService.getInstance(project).getSnapshot();
+        int iconSize = IconCreator.getIconSize(project);
+        Elements current = elements;
+        if (current.table() == table && current.iconSize() == iconSize) {
+            return current;
+        }
+        synchronized (this) {
+            current = elements;
+            if (current.table() != table || current.iconSize() != iconSize) {
+                current = update(current, table, iconSize);
+                elements = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Returns the elements of the given snapshot. Only the names the snapshot invalidated since the previous
+     * elements were built are looked at; they are merged into the sorted arrays of the previous elements.
+     */
+    private Elements update(@NotNull Elements previous, @NotNull ConstantTable table, int iconSize) {
+        Set<String> invalidated = previous.table() != null && previous.iconSize() == iconSize
+                ? table.invalidatedSince(previous.table())
+                : null;
+        if (invalidated == null) {
+            return rebuild(previous, table, iconSize);
+        }
+
+        String[] changed = invalidated.toArray(new String[0]);
+        Arrays.sort(changed);
+        String[] oldNames = previous.names();
+        Entry[] oldEntries = previous.entries();
+        String[] names = new String[oldNames.length + changed.length];
+        Entry[] entries = new Entry[names.length];
+        int size = 0;
+        int from = 0;
+        for (String name : changed) {
+            ProgressManager.checkCanceled();
+            int index = Arrays.binarySearch(oldNames, from, oldNames.length, name);
+            int to = index >= 0 ? index : -index - 1;
+            System.arraycopy(oldNames, from, names, size, to - from);
+            System.arraycopy(oldEntries, from, entries, size, to - from);
+            size += to - from;
+            from = index >= 0 ? index + 1 : to;
+
+            Entry entry = createEntry(name, index >= 0 ? oldEntries[index] : null, table, iconSize);
+            if (entry != null) {
+                names[size] = name;
+                entries[size] = entry;
+                size++;
+            }
+        }
+        System.arraycopy(oldNames, from, names, size, oldNames.length - from);
+        System.arraycopy(oldEntries, from, entries, size, oldNames.length - from);
+        size += oldNames.length - from;
+        return new Elements(table, iconSize, Arrays.copyOf(names, size), Arrays.copyOf(entries, size));
+    }
+
+    /**
+     * Returns the elements of all constants of the given snapshot, reusing the unchanged previous ones.
+     */
+    private Elements rebuild(@NotNull Elements previous, @NotNull ConstantTable table, int iconSize) {
+        boolean sameIconSize = previous.iconSize() == iconSize;
+        String[] allNames = table.getConstants().keySet().toArray(new String[0]);
+        Arrays.sort(allNames);
+        String[] names = new String[allNames.length];
+        Entry[] entries = new Entry[allNames.length];
+        int size = 0;
+        for (String name : allNames) {
+            ProgressManager.checkCanceled();
+            int index = sameIconSize ? Arrays.binarySearch(previous.names(), name) : -1;
+            Entry entry = createEntry(name, index >= 0 ? previous.entries()[index] : null, table, iconSize);
+            if (entry != null) {
+                names[size] = name;
+                entries[size] = entry;
+                size++;
+            }
+        }
+        return new Elements(table, iconSize, Arrays.copyOf(names, size), Arrays.copyOf(entries, size));
+    }
+
+    /**
+     * Returns the entry of the given constant, or null if it cannot be resolved. The previous entry
+     * is returned if the resolved value and color did not change.
+     */
+    private @Nullable Entry createEntry(@NotNull String name, @Nullable Entry previous, @NotNull ConstantTable table,
+                                        int iconSize) {
+        String resolvedValue = table.resolve(name);
+        if (resolvedValue == null) {
+            return null;
+        }
+
+        // the same derive(...) value yields another color when one of its inputs changed
+        if (previous != null && previous.resolvedValue().equals(resolvedValue)
+                && (previous.kind() != ConstantKind.COLOR || previous.color() == table.resolveColor(name))) {
+            return previous;
+        }
+        ConstantKind kind = ConstantClassifier.classify(resolvedValue);
+        int color = kind == ConstantKind.COLOR ? table.resolveColor(name) : ColorConverter.INVALID;
+        return new Entry(resolvedValue, color, kind, createLookupElement(name, resolvedValue, kind, table, iconSize));
+    }
+
+    /**
+     * Creates the lookup element of a constant. Color icons are cheap and created right away.
+     * Gradient and SVG icons start as an empty placeholder of the same size and are rendered by the
+     * platform's asynchronous lookup rendering, so the popup never waits for them.
+     */
+    private LookupElement createLookupElement(@NotNull String name, @NotNull String resolvedValue, @NotNull ConstantKind kind,
+                                              @NotNull ConstantTable table, int iconSize) {
+        LookupElementBuilder builder = LookupElementBuilder.create("-" + name)
+                .withTypeText(resolvedValue, true);
+
+        if (kind == ConstantKind.COLOR) {
+            Icon icon = IconCreator.createIcon(resolvedValue, project, table, iconSize);
+            return icon != null ? builder.withIcon(icon) : builder;
+        }
+        if (kind != ConstantKind.GRADIENT && kind != ConstantKind.SVG_PATH) {
+            return builder;
+        }
+
+        return builder
+                .withIcon(EmptyIcon.create(iconSize))
+                .withExpensiveRenderer((element, presentation) -> {
+                    Icon icon = IconCreator.createIcon(resolvedValue, project, table, iconSize);
+                    if (icon == null) {
+                        return;
+                    }
+                    presentation.setIcon(icon);
+
+                    // if the icon is an instance of SvgIcon, we can get its bounds
+                    if (icon instanceof SvgIcon svgIcon) {
+                        Rectangle2D bounds = svgIcon.getBounds();
+                        if (bounds != null && bounds.getWidth() > 0 && bounds.getHeight() > 0) {
+                            DecimalFormat formatter = new DecimalFormat("0.##");
+                            presentation.setTypeText("W:" + formatter.format(bounds.getWidth()) + " H:" + formatter.format(bounds.getHeight()));
+                            presentation.setTypeGrayed(true);
+                        }
+                    }
+                });
+    }
+
+    private record Entry(@NotNull String resolvedValue, int color, @NotNull ConstantKind kind, @NotNull LookupElement element) {
+    }
+
+    /**
+     * The elements of one snapshot, as parallel arrays sorted by name so an update can merge the changed names.
+     */
+    private record Elements(@Nullable ConstantTable table, int iconSize, @NotNull String[] names, @NotNull Entry[] entries) {
+    }
+}
@@ -1,6 +1,8 @@
 package com.dlsc.fxtoolkit;
 
+import com.dlsc.fxtoolkit.model.RootConstant;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
@@ -8,51 +10,77 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.PsiReferenceBase;
 import com.intellij.psi.css.CssDeclaration;
-import com.intellij.psi.css.CssRuleset;
-import com.intellij.psi.search.FilenameIndex;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-
+/**
+ * A reference from a `-name` term to the declaration of that constant in a `.root` block.
+ * <p>
+ * The declaring file and offset are looked up in the {@link FxCssConstantIndex}, so resolving
+ * does not depend on the number of stylesheets. When several files declare the constant,
+ * the one that wins in the {@link FxCssService} is chosen. The result is cached on the element
+ * until the PSI or the constant table changes.
+ */
 public class FxCssPsiReference extends PsiReferenceBase<PsiElement> {
 
+    private static final Key<CachedValue<PsiElement>> RESOLVED_KEY = Key.create("FxCssPsiReference.resolved");
+
     public FxCssPsiReference(@NotNull PsiElement element) {
         super(element, new TextRange(0, element.getTextLength()));
     }
 
     @Override
     public @Nullable PsiElement resolve() {
-        String refText = getElement().getText();
-        if (refText == null || !refText.startsWith("-")) {
+        PsiElement element = getElement();
+        return CachedValuesManager.getCachedValue(element, RESOLVED_KEY, () -> {
+            Project project = element.getProject();
+            return CachedValueProvider.Result.create(findDeclaration(project, getValue()),
+                    PsiModificationTracker.MODIFICATION_COUNT,
+                    FxCssService.getInstance(project).getModificationTracker());
+        });
+    }
+
+    private static @Nullable PsiElement findDeclaration(@NotNull Project project, @NotNull String refText) {
+        if (!refText.startsWith("-")) {
             return null;
         }
         // remove the leading dash "-"
         String varName = refText.substring(1);
-        Project project = getElement().getProject();
-        // Search for all CSS files in the project
-        Collection<VirtualFile> cssFiles = FilenameIndex.getAllFilesByExt(project, "css", GlobalSearchScope.allScope(project));
-        for (VirtualFile file : cssFiles) {
-            PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
-            if (psiFile == null) continue;
-
-            if (!psiFile.getText().contains(".root")) {
-                continue;
-            }
-            // Find all CssDeclaration elements in the file
-            for (CssDeclaration decl : PsiTreeUtil.findChildrenOfType(psiFile, CssDeclaration.class)) {
-                String propName = decl.getPropertyName();
-                if (propName.trim().equalsIgnoreCase("-" + varName)) {
-                    CssRuleset ruleset = PsiTreeUtil.getParentOfType(decl, CssRuleset.class);
-                    if (ruleset != null && ruleset.getText().contains(".root")) {
-                        return decl;
+        FxCssService service = FxCssService.getInstance(project);
+
+        VirtualFile[] bestFile = new VirtualFile[1];
+        String[] bestSource = new String[1];
+        int[] bestOffset = new int[1];
+        FileBasedIndex.getInstance().processValues(FxCssConstantIndex.NAME, varName, null,
+                (VirtualFile file, RootConstant constant) -> {
+                    String source = service.sourceKey(file);
+                    if (bestSource[0] == null || source.compareTo(bestSource[0]) < 0) {
+                        bestFile[0] = file;
+                        bestSource[0] = source;
+                        bestOffset[0] = constant.offset();
                     }
-                }
-            }
+                    return true;
+                }, GlobalSearchScope.allScope(project));
+        if (bestFile[0] == null) {
+            return null;
+        }
+
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(bestFile[0]);
+        if (psiFile == null) {
+            return null;
+        }
+        CssDeclaration declaration = PsiTreeUtil.getParentOfType(psiFile.findElementAt(bestOffset[0]), CssDeclaration.class, false);
+        if (declaration == null || !declaration.getPropertyName().trim().equalsIgnoreCase(refText)) {
+            return null;
         }
-        return null;
+        return declaration;
     }
 
     @Override
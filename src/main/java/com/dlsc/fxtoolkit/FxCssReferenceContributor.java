@@ -1,30 +1,73 @@
 package com.dlsc.fxtoolkit;
 
 import com.intellij.lang.css.CSSLanguage;
+import com.intellij.openapi.util.Key;
 import com.intellij.patterns.PlatformPatterns;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.PsiReferenceContributor;
 import com.intellij.psi.PsiReferenceProvider;
 import com.intellij.psi.PsiReferenceRegistrar;
+import com.intellij.psi.css.CssTerm;
+import com.intellij.psi.css.CssTermList;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.util.ProcessingContext;
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Contributes {@link FxCssPsiReference}s to the terms of declaration values that refer to a known constant.
+ * <p>
+ * Only terms inside a term list are considered, so property names, selectors and other tokens are
+ * never looked at. The reference array of a term is cached until the PSI or the constant table changes.
+ */
 public class FxCssReferenceContributor extends PsiReferenceContributor {
+
+    private static final Key<CachedValue<PsiReference[]>> REFERENCES_KEY = Key.create("FxCssReferenceContributor.references");
+
     @Override
     public void registerReferenceProviders(@NotNull PsiReferenceRegistrar registrar) {
         registrar.registerReferenceProvider(
-            PlatformPatterns.psiElement(PsiElement.class).withLanguage(CSSLanguage.INSTANCE),
+            PlatformPatterns.psiElement(CssTerm.class)
+                    .withParent(CssTermList.class)
+                    .withLanguage(CSSLanguage.INSTANCE),
             new PsiReferenceProvider() {
                 @Override
                 public PsiReference @NotNull [] getReferencesByElement(@NotNull PsiElement element, @NotNull ProcessingContext context) {
-                    String text = element.getText();
-                    if (text != null && text.startsWith("-")) {
-                        return new PsiReference[]{new FxCssPsiReference(element)};
-                    }
-                    return PsiReference.EMPTY_ARRAY;
+                    return CachedValuesManager.getCachedValue(element, REFERENCES_KEY, () ->
+                            CachedValueProvider.Result.create(createReferences(element),
+                                    PsiModificationTracker.MODIFICATION_COUNT,
+                                    FxCssService.getInstance(element.getProject()).getModificationTracker()));
                 }
             }
         );
     }
+
+    private static PsiReference @NotNull [] createReferences(@NotNull PsiElement element) {
+        // the node's chars are a view on the file text, so terms that are not constants cost no copy
+        CharSequence text = element.getNode().getChars();
+        if (text.length() < 2 || text.charAt(0) != '-' || !isNameStart(text.charAt(1))) {
+            return PsiReference.EMPTY_ARRAY;
+        }
+        for (int i = 2; i < text.length(); i++) {
+            if (!isNameChar(text.charAt(i))) {
+                return PsiReference.EMPTY_ARRAY;
+            }
+        }
+        String name = text.subSequence(1, text.length()).toString();
+        if (!FxCssService.getInstance(element.getProject()).getSnapshot().contains(name)) {
+            return PsiReference.EMPTY_ARRAY;
+        }
+        return new PsiReference[]{new FxCssPsiReference(element)};
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '-' || c == '_';
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+    }
 }
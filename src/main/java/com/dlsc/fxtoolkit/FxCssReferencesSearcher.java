@@ -0,0 +1,45 @@
+package com.dlsc.fxtoolkit;
+
+import com.dlsc.fxtoolkit.util.CssPsiUtil;
+import com.intellij.openapi.application.QueryExecutorBase;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.LocalSearchScope;
+import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Finds the references to a `.root` constant through the {@link FxCssUsageIndex}, so Find Usages and
+ * refactorings never fall back to a text search over all stylesheets.
+ */
+public class FxCssReferencesSearcher extends QueryExecutorBase<PsiReference, ReferencesSearch.SearchParameters> {
+
+    public FxCssReferencesSearcher() {
+        super(true);
+    }
+
+    @Override
+    public void processQuery(@NotNull ReferencesSearch.SearchParameters queryParameters,
+                             @NotNull Processor<? super PsiReference> consumer) {
+        if (!(queryParameters.getElementToSearch() instanceof CssDeclaration declaration)) {
+            return;
+        }
+        String name = CssPsiUtil.getDeclaredConstantName(declaration);
+        if (name == null) {
+            return;
+        }
+
+        Project project = declaration.getProject();
+        SearchScope scope = queryParameters.getEffectiveSearchScope();
+        GlobalSearchScope globalScope = scope instanceof GlobalSearchScope global
+                ? global
+                : GlobalSearchScope.filesScope(project, Arrays.asList(((LocalSearchScope) scope).getVirtualFiles()));
+        FxCssUsageIndex.processUsages(project, name, globalScope, term -> consumer.process(new FxCssPsiReference(term)));
+    }
+}
@@ -1,59 +1,159 @@
 package com.dlsc.fxtoolkit;
 
+import com.dlsc.fxtoolkit.model.CacheStats;
+import com.dlsc.fxtoolkit.model.ConstantTable;
+import com.dlsc.fxtoolkit.model.RootConstant;
+import com.dlsc.fxtoolkit.util.BundledConstants;
+import com.dlsc.fxtoolkit.util.ConstantUsageScanner;
 import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.components.Service;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
 import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
 import com.intellij.psi.PsiDocumentManager;
-import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiManager;
-import com.intellij.psi.PsiRecursiveElementVisitor;
-import com.intellij.psi.css.CssDeclaration;
-import com.intellij.psi.css.CssRuleset;
-import com.intellij.psi.css.CssTerm;
-import com.intellij.psi.css.CssTermList;
 import com.intellij.psi.search.FilenameIndex;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.search.ProjectScope;
 import com.intellij.util.Alarm;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.io.IOUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * FxCssService is a service that manages CSS files in a JavaFX project.
- * It scans all CSS files for global constants defined in the `.root` block,
+ * It collects the global constants defined in `.root` blocks from the {@link FxCssConstantIndex},
  * caches them, and provides methods to resolve these constants.
+ * <p>
+ * Writers merge changes into internal working maps while holding the service monitor and then publish
+ * an immutable {@link ConstantTable} snapshot. Readers only ever see complete snapshots and never lock.
  */
 @Service(Service.Level.PROJECT)
 public final class FxCssService implements Disposable {
 
     private final Project project;
 
-    private final Map<String, String> globalConstantMap = new ConcurrentHashMap<>();
+    /**
+     * The working copy of the winning raw value of every constant. Guarded by the service monitor;
+     * readers use the published {@link #snapshot} instead.
+     */
+    private final Map<String, String> globalConstantMap = new HashMap<>();
+
+    private final Map<VirtualFile, FileConstants> fileConstantsCache = new ConcurrentHashMap<>();
+
+    /**
+     * All definitions of every constant name, keyed by the source they come from (see {@link #sourceKey}).
+     * The first entry in source order is the one published in {@link #globalConstantMap}.
+     * Guarded by the service monitor.
+     */
+    private final Map<String, NavigableMap<String, String>> definitionsByName = new HashMap<>();
+
+    /**
+     * Reference edges: maps a constant name to the names its raw value refers to, either as a plain
+     * alias like `-primary-500` or inside an expression like `derive(-fx-base, -20%)`.
+     * Guarded by the service monitor.
+     */
+    private final Map<String, Set<String>> referencesByName = new HashMap<>();
+
+    /**
+     * Reverse reference edges: maps a constant name to the names whose raw value refers to it.
+     * Guarded by the service monitor.
+     */
+    private final Map<String, Set<String>> dependentsByName = new HashMap<>();
+
+    /**
+     * Names that are part of a circular chain of references. Detected whenever the graph changes.
+     * Guarded by the service monitor.
+     */
+    private final Set<String> cyclicNames = new HashSet<>();
+
+    /**
+     * The latest published constant table. Replaced as a whole, never modified.
+     */
+    private volatile ConstantTable snapshot = ConstantTable.empty();
+
+    private final ModificationTracker modificationTracker = () -> snapshot.getVersion();
+
+    /**
+     * CSS files that changed since the last batch was processed.
+     */
+    private final Set<VirtualFile> pendingFiles = ConcurrentHashMap.newKeySet();
+
+    private final Alarm updateAlarm;
 
-    private final Map<VirtualFile, Map<String, String>> fileConstantsCache = new ConcurrentHashMap<>();
+    private final ExecutorService scanExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+            "FxCss Constant Scan", Runtime.getRuntime().availableProcessors());
 
     private static final int DEBOUNCE_DELAY = 1000;
 
+    private static final int SCAN_CHUNK_SIZE = 32;
+
+    private static final int STATE_FORMAT_VERSION = 2;
+
+    /*
+     * Source key prefixes, in order of precedence: project stylesheets override library stylesheets,
+     * which override the constants bundled with the plugin.
+     */
+    private static final String PROJECT_SOURCE = "0:";
+    private static final String LIBRARY_SOURCE = "1:";
+    private static final String BUNDLED_SOURCE = "2:modena.css";
+
+    private boolean bundledConstantsLoaded;
+
     public FxCssService(Project project) {
         this.project = project;
+        this.updateAlarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, this);
     }
 
     public static FxCssService getInstance(@NotNull Project project) {
@@ -61,227 +161,598 @@ public final class FxCssService implements Disposable {
     }
 
     /**
-     * Scans all CSS files in the project, Refreshes the caches and the editors.
+     * Re-reads all constants from the constant index in a cancellable background task,
+     * merges the differences into the caches and refreshes the editors.
+     * <p>
+     * The stylesheets are split into chunks that are read in parallel on a pool sized to the
+     * available cores. Each chunk runs in a non-blocking read action, so pending write actions
+     * are never blocked by the scan. Results are merged as soon as a chunk finishes, which makes
+     * completion available before the whole scan is done.
+     * <p>
+     * Stylesheets inside libraries are scanned after the project's own files, and the constants
+     * of modena.css bundled with the plugin are added on the first scan.
+     */
+    public void scanAllCssFiles() {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Scanning JavaFX CSS constants", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                scanAllCssFiles(indicator);
+            }
+        });
+    }
+
+    private void scanAllCssFiles(@NotNull ProgressIndicator indicator) {
+        Set<String> changed = ConcurrentHashMap.newKeySet();
+        synchronized (this) {
+            changed.addAll(publish(ensureBundledConstants()));
+        }
+
+        indicator.setIndeterminate(true);
+        indicator.setText("Collecting stylesheets");
+        List<VirtualFile> cssFiles = ReadAction.nonBlocking(() -> {
+                    Set<VirtualFile> files = new LinkedHashSet<>(FilenameIndex.getAllFilesByExt(
+                            project, "css", GlobalSearchScope.projectScope(project)));
+                    files.addAll(FilenameIndex.getAllFilesByExt(project, "css", ProjectScope.getLibrariesScope(project)));
+                    return new ArrayList<>(files);
+                })
+                .inSmartMode(project)
+                .wrapProgress(indicator)
+                .executeSynchronously();
+
+        indicator.setIndeterminate(false);
+        indicator.setText("Scanning JavaFX CSS constants");
+        Set<VirtualFile> scanned = ConcurrentHashMap.newKeySet();
+        AtomicInteger done = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int start = 0; start < cssFiles.size(); start += SCAN_CHUNK_SIZE) {
+                List<VirtualFile> chunk = cssFiles.subList(start, Math.min(start + SCAN_CHUNK_SIZE, cssFiles.size()));
+                futures.add(scanExecutor.submit(() -> {
+                    Map<VirtualFile, FileConstants> defs = ReadAction.nonBlocking(() -> readConstants(chunk))
+                            .inSmartMode(project)
+                            .wrapProgress(indicator)
+                            .executeSynchronously();
+                    synchronized (this) {
+                        Set<String> chunkChanges = new HashSet<>();
+                        defs.forEach((file, constants) -> chunkChanges.addAll(updateFileConstants(file, constants)));
+                        changed.addAll(publish(chunkChanges));
+                    }
+                    scanned.addAll(chunk);
+                    indicator.setFraction((double) done.addAndGet(chunk.size()) / cssFiles.size());
+                }));
+            }
+            for (Future<?> future : futures) {
+                ProgressIndicatorUtils.awaitWithCheckCanceled(future, indicator);
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+
+        // only a complete scan can tell which cached files no longer declare anything
+        synchronized (this) {
+            Set<String> removed = new HashSet<>();
+            for (VirtualFile file : new ArrayList<>(fileConstantsCache.keySet())) {
+                if (!scanned.contains(file)) {
+                    removed.addAll(updateFileConstants(file, null));
+                }
+            }
+            changed.addAll(publish(removed));
+        }
+        refreshEditors(changed);
+        saveState();
+    }
+
+    /**
+     * Reads the definitions of the given files from the constant index. Files that are already
+     * cached with an unchanged modification stamp, e.g. after {@link #restoreState()}, are skipped.
+     * This method must be executed within a ReadAction.
      */
-    public synchronized void scanAllCssFiles() {
-        fileConstantsCache.clear();
-        globalConstantMap.clear();
+    private Map<VirtualFile, FileConstants> readConstants(@NotNull List<VirtualFile> files) {
+        Map<VirtualFile, FileConstants> result = new HashMap<>();
+        for (VirtualFile file : files) {
+            ProgressManager.checkCanceled();
+            if (!file.isValid()) continue;
+            FileConstants known = fileConstantsCache.get(file);
+            if (known == null || known.stamp() != fileStamp(file)) {
+                result.put(file, indexedConstants(file));
+            }
+        }
+        return result;
+    }
 
-        ReadAction.run(() -> {
-            Collection<VirtualFile> cssFiles = FilenameIndex.getAllFilesByExt(
-                    project, "css", GlobalSearchScope.projectScope(project));
-            for (VirtualFile vf : cssFiles) {
-                processFile(vf);
+    /**
+     * Restores the per-file constant tables persisted by a previous session. Files whose modification
+     * stamp still matches are published right away, so completion and gutter icons are available
+     * before indexing and the initial scan have finished. The scan then only revalidates the others.
+     * <p>
+     * The state is discarded as a whole if it was written by another version of the state format or
+     * of the {@link FxCssConstantIndex}, as the cached values may then be normalized differently.
+     */
+    public void restoreState() {
+        Map<String, FileConstants> restored = new HashMap<>();
+        Path path = getStatePath();
+        if (Files.isRegularFile(path)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                // the cached values were read by a specific version of the index, and are stale after an update
+                if (in.readInt() == STATE_FORMAT_VERSION && in.readInt() == FxCssConstantIndex.VERSION) {
+                    int fileCount = in.readInt();
+                    for (int i = 0; i < fileCount; i++) {
+                        String url = IOUtil.readUTF(in);
+                        String source = IOUtil.readUTF(in);
+                        long stamp = in.readLong();
+                        int count = in.readInt();
+                        Map<String, String> constants = new HashMap<>(count * 2);
+                        for (int j = 0; j < count; j++) {
+                            String name = IOUtil.readUTF(in);
+                            constants.put(name, IOUtil.readUTF(in));
+                        }
+                        restored.put(url, new FileConstants(source, stamp, constants));
+                    }
+                }
+            } catch (IOException e) {
+                // an unreadable snapshot is ignored, the initial scan rebuilds everything
+                restored.clear();
+            }
+        }
+
+        Map<VirtualFile, FileConstants> upToDate = new HashMap<>();
+        VirtualFileManager virtualFileManager = VirtualFileManager.getInstance();
+        restored.forEach((url, constants) -> {
+            VirtualFile file = virtualFileManager.findFileByUrl(url);
+            if (file != null && file.isValid() && fileStamp(file) == constants.stamp()) {
+                upToDate.put(file, constants);
             }
         });
 
-        recalcGlobalConstants();
-        refreshEditorsAndRestart();
+        Set<String> changed;
+        synchronized (this) {
+            Set<String> restoredChanges = new HashSet<>(ensureBundledConstants());
+            upToDate.forEach((file, constants) -> restoredChanges.addAll(updateFileConstants(file, constants)));
+            changed = publish(restoredChanges);
+        }
+        refreshEditors(changed);
     }
 
     /**
-     * Incrementally processes a single CSS file: parses variable definitions inside the `.root` block
-     * and updates the internal cache accordingly.
+     * Writes the per-file constant tables to the project's system directory.
      */
-    public synchronized void processFile(@NotNull VirtualFile file) {
-        if (!file.getName().endsWith(".css")) return;
-        String text = getDocumentText(file);
-        String rootBlock = extractRootBlock(text);
-        if (rootBlock == null) {
-            fileConstantsCache.remove(file);
-            return;
+    public void saveState() {
+        List<Map.Entry<VirtualFile, FileConstants>> entries = new ArrayList<>(fileConstantsCache.entrySet());
+        Path path = getStatePath();
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+                out.writeInt(STATE_FORMAT_VERSION);
+                out.writeInt(FxCssConstantIndex.VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<VirtualFile, FileConstants> entry : entries) {
+                    FileConstants constants = entry.getValue();
+                    IOUtil.writeUTF(out, entry.getKey().getUrl());
+                    IOUtil.writeUTF(out, constants.source());
+                    out.writeLong(constants.stamp());
+                    out.writeInt(constants.constants().size());
+                    for (Map.Entry<String, String> constant : constants.constants().entrySet()) {
+                        IOUtil.writeUTF(out, constant.getKey());
+                        IOUtil.writeUTF(out, constant.getValue());
+                    }
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // persisting is an optimization only, the next session falls back to a full scan
         }
-        Map<String, String> defs = parseRootDefinitions(file);
-        fileConstantsCache.put(file, defs);
     }
 
-    private void recalcGlobalConstants() {
-        globalConstantMap.clear();
-        for (Map<String, String> defs : fileConstantsCache.values()) {
-            globalConstantMap.putAll(defs);
+    private Path getStatePath() {
+        return Path.of(PathManager.getSystemPath(), "fxtoolkit", project.getLocationHash() + ".constants");
+    }
+
+    /**
+     * Returns a stamp combining the modification time and the length of the given file.
+     */
+    private static long fileStamp(@NotNull VirtualFile file) {
+        return file.getTimeStamp() * 31 + file.getLength();
+    }
+
+    /**
+     * Adds the constants bundled with the plugin, unless that has already happened.
+     * Must be called while holding the service monitor.
+     */
+    private Set<String> ensureBundledConstants() {
+        if (bundledConstantsLoaded) {
+            return Set.of();
         }
+        bundledConstantsLoaded = true;
+        return addBundledConstants(BundledConstants.getModenaConstants());
     }
 
     /**
-     * Parses variable definitions from the `.root` block of the given CSS file.
-     * This method must be executed within a ReadAction.
+     * Replaces the definitions of a single file and applies only the added, removed and changed
+     * names to the global map, so the cost is proportional to the size of that file.
      * <p>
-     * The following built-in font-related properties are ignored:
-     * - -fx-font
-     * - -fx-font-family
-     * - -fx-font-size
-     * - -fx-font-weight
-     * - -fx-font-style
-     */
-    private Map<String, String> parseRootDefinitions(@NotNull VirtualFile file) {
-        return ReadAction.compute(() -> {
-            Map<String, String> map = new HashMap<>();
-            PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
-            if (psiFile == null) return map;
-            psiFile.accept(new PsiRecursiveElementVisitor() {
-                @Override
-                public void visitElement(@NotNull PsiElement element) {
-                    if (element instanceof CssDeclaration decl) {
-                        String propertyName = decl.getPropertyName();
-                        if (!propertyName.startsWith("-")) return;
-                        if (propertyName.equalsIgnoreCase("-fx-background-color") ||
-                                propertyName.equalsIgnoreCase("-fx-font") ||
-                                propertyName.equalsIgnoreCase("-fx-font-family") ||
-                                propertyName.equalsIgnoreCase("-fx-font-size") ||
-                                propertyName.equalsIgnoreCase("-fx-font-weight") ||
-                                propertyName.equalsIgnoreCase("-fx-font-style")) {
-                            return;
-                        }
-                        CssRuleset ruleset = PsiTreeUtil.getParentOfType(decl, CssRuleset.class);
-                        if (ruleset == null) return;
-                        String selectorsText = ruleset.getText();
-                        if (selectorsText == null || !selectorsText.contains(".root")) return;
-                        CssTermList valueList = decl.getValue();
-                        if (valueList == null) return;
-                        String rawValue = extractRawValue(valueList);
-                        if (rawValue.isEmpty()) return;
-                        String varName = propertyName.substring(1);
-                        map.put(varName, rawValue);
-                    }
-                    super.visitElement(element);
+     * When several sources define the same name, project files win over library files, which win
+     * over the bundled constants. Within a tier, the file whose path sorts first wins. The order does
+     * not depend on scan order, so results are stable across rescans.
+     * <p>
+     * Only the working maps are updated; the caller publishes the result with {@link #publish}.
+     *
+     * @param update the new definitions of the file, or null if the file no longer defines any
+     * @return the names whose winning raw value changed
+     */
+    private Set<String> updateFileConstants(@NotNull VirtualFile file, @Nullable FileConstants update) {
+        Map<String, String> newDefs = update != null ? update.constants() : Map.of();
+        FileConstants old = newDefs.isEmpty()
+                ? fileConstantsCache.remove(file)
+                : fileConstantsCache.put(file, update);
+
+        Set<String> touched = new HashSet<>();
+        if (old != null) {
+            // a moved or renamed file keeps its definitions, but may change precedence
+            boolean moved = !newDefs.isEmpty() && !old.source().equals(update.source());
+            old.constants().forEach((name, value) -> {
+                if (moved || !value.equals(newDefs.get(name))) {
+                    removeDefinition(name, old.source());
+                    touched.add(name);
                 }
             });
-            return map;
+        }
+        Map<String, String> oldDefs = old != null ? old.constants() : Map.of();
+        newDefs.forEach((name, value) -> {
+            if (touched.contains(name) || !value.equals(oldDefs.get(name))) {
+                definitionsByName.computeIfAbsent(name, k -> new TreeMap<>()).put(update.source(), value);
+                touched.add(name);
+            }
         });
+        return publishWinners(touched);
+    }
+
+    /**
+     * Adds constants that are bundled with the plugin with the lowest precedence.
+     */
+    private Set<String> addBundledConstants(@NotNull Map<String, String> constants) {
+        constants.forEach((name, value) ->
+                definitionsByName.computeIfAbsent(name, k -> new TreeMap<>()).put(BUNDLED_SOURCE, value));
+        return publishWinners(constants.keySet());
+    }
+
+    /**
+     * Writes the winning definition of each of the given names to the global map.
+     *
+     * @return the names whose winning raw value changed
+     */
+    private Set<String> publishWinners(@NotNull Collection<String> touched) {
+        Set<String> changed = new HashSet<>();
+        for (String name : touched) {
+            NavigableMap<String, String> definitions = definitionsByName.get(name);
+            String winner = definitions != null ? definitions.firstEntry().getValue() : null;
+            String previous = winner != null ? globalConstantMap.put(name, winner) : globalConstantMap.remove(name);
+            if (!Objects.equals(previous, winner)) {
+                updateDependency(name, winner);
+                changed.add(name);
+            }
+        }
+        return changed;
     }
 
-    private String extractRawValue(CssTermList termList) {
-        StringBuilder sb = new StringBuilder();
-        for (CssTerm term : termList.getTerms()) {
-            sb.append(term.getText());
+    private void removeDefinition(@NotNull String name, @NotNull String source) {
+        NavigableMap<String, String> definitions = definitionsByName.get(name);
+        if (definitions != null) {
+            definitions.remove(source);
+            if (definitions.isEmpty()) {
+                definitionsByName.remove(name);
+            }
         }
-        return sb.toString().trim();
     }
 
     /**
-     * Retrieves the document text of the given file within a ReadAction.
+     * Replaces the reference edges of the given constant with the names its new raw value refers to.
      */
-    private String getDocumentText(@NotNull VirtualFile file) {
-        return ReadAction.compute(() -> {
-            var document = FileDocumentManager.getInstance().getDocument(file);
-            return document != null ? document.getText() : "";
-        });
+    private void updateDependency(@NotNull String name, @Nullable String newRawValue) {
+        Set<String> oldTargets = referencesByName.getOrDefault(name, Set.of());
+        Set<String> newTargets = newRawValue != null ? ConstantUsageScanner.referencedNames(newRawValue) : Set.of();
+        if (oldTargets.equals(newTargets)) return;
+        for (String target : oldTargets) {
+            if (newTargets.contains(target)) continue;
+            Set<String> dependents = dependentsByName.get(target);
+            if (dependents != null) {
+                dependents.remove(name);
+                if (dependents.isEmpty()) {
+                    dependentsByName.remove(target);
+                }
+            }
+        }
+        for (String target : newTargets) {
+            dependentsByName.computeIfAbsent(target, k -> new HashSet<>()).add(name);
+        }
+        if (newTargets.isEmpty()) {
+            referencesByName.remove(name);
+        } else {
+            referencesByName.put(name, newTargets);
+        }
+    }
+
+    /**
+     * Publishes a new snapshot of the constant table after a batch of changes has been merged.
+     * The memoized resolution and color of the changed names and of every constant that transitively
+     * refers to one of them is dropped, and those constants are re-checked for circular references.
+     * Must be called while holding the service monitor.
+     *
+     * @param changed the names whose winning raw value changed
+     * @return the changed names and transitive dependents whose resolved value or color actually changed
+     */
+    private Set<String> publish(@NotNull Set<String> changed) {
+        if (changed.isEmpty()) return Set.of();
+
+        Set<String> invalidated = new HashSet<>(changed);
+        Deque<String> queue = new ArrayDeque<>(changed);
+        while (!queue.isEmpty()) {
+            Set<String> dependents = dependentsByName.get(queue.poll());
+            if (dependents == null) continue;
+            for (String dependent : dependents) {
+                if (invalidated.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        // every member of a cycle that was created or broken by this change refers to a changed name
+        cyclicNames.removeAll(invalidated);
+        detectCycles(invalidated);
+
+        ConstantTable previous = snapshot;
+        Map<String, String> changes = new HashMap<>(changed.size() * 2);
+        changed.forEach(name -> changes.put(name, globalConstantMap.get(name)));
+        ConstantTable next = previous.derive(changes, cyclicNames, invalidated);
+        snapshot = next;
+
+        Set<String> affected = new HashSet<>(invalidated);
+        for (String name : invalidated) {
+            if (next.isUnchangedSince(previous, name, referencesByName.containsKey(name))) {
+                affected.remove(name);
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Marks every given name that can reach itself through its references as cyclic. A cycle through
+     * one of the names consists of invalidated names only, so the search does not leave the given set.
+     */
+    private void detectCycles(@NotNull Set<String> names) {
+        for (String start : names) {
+            Set<String> seen = new HashSet<>();
+            Deque<String> stack = new ArrayDeque<>(referencesByName.getOrDefault(start, Set.of()));
+            while (!stack.isEmpty()) {
+                String current = stack.pop();
+                if (current.equals(start)) {
+                    cyclicNames.add(start);
+                    break;
+                }
+                if (names.contains(current) && seen.add(current)) {
+                    stack.addAll(referencesByName.getOrDefault(current, Set.of()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the `.root` definitions of the given file from the {@link FxCssConstantIndex}.
+     * Waits for smart mode, as the index is not available while indexing is in progress.
+     */
+    private @Nullable FileConstants readFileConstants(@NotNull VirtualFile file) {
+        return DumbService.getInstance(project).runReadActionInSmartMode(
+                () -> file.isValid() ? indexedConstants(file) : null);
+    }
+
+    /**
+     * Reads the definitions of the given file from the index.
+     * This method must be executed within a ReadAction.
+     */
+    private FileConstants indexedConstants(@NotNull VirtualFile file) {
+        Map<String, String> map = new HashMap<>();
+        Map<String, RootConstant> data = FileBasedIndex.getInstance().getFileData(FxCssConstantIndex.NAME, file, project);
+        data.forEach((name, constant) -> map.put(name, constant.value()));
+        return new FileConstants(sourceKey(file), fileStamp(file), map);
+    }
+
+    /**
+     * Returns the precedence key of the given file: its tier prefix followed by its path.
+     * This method must be executed within a ReadAction.
+     */
+    String sourceKey(@NotNull VirtualFile file) {
+        boolean inProject = ProjectFileIndex.getInstance(project).isInContent(file);
+        return (inProject ? PROJECT_SOURCE : LIBRARY_SOURCE) + file.getPath();
+    }
+
+    /**
+     * Returns the latest published snapshot of the constant table. Callers that perform several
+     * lookups should fetch the snapshot once, so all of them see the same state.
+     */
+    public @NotNull ConstantTable getSnapshot() {
+        return snapshot;
     }
 
     /**
-     * Extracts the content of the `.root` block by locating the first pair of braces
-     * following the ".root" selector. Includes the curly braces in the result.
+     * Returns a tracker whose count changes whenever a new snapshot of the constant table is published.
+     * Caches derived from the constants can use it as a dependency.
      */
-    private String extractRootBlock(String text) {
-        int index = text.indexOf(".root");
-        if (index == -1) return null;
-        int braceStart = text.indexOf("{", index);
-        if (braceStart == -1) return null;
-        int braceEnd = text.indexOf("}", braceStart);
-        if (braceEnd == -1) return null;
-        return text.substring(braceStart, braceEnd + 1).trim();
+    public @NotNull ModificationTracker getModificationTracker() {
+        return modificationTracker;
     }
 
     /**
-     * Returns an unmodifiable view of the global constant map.
+     * Returns the raw values of all constants of the latest snapshot. The map is immutable.
      */
     public Map<String, String> getConstantMap() {
-        return Collections.unmodifiableMap(globalConstantMap);
+        return snapshot.getConstants();
     }
 
     /**
      * Resolves variable aliases recursively, e.g., graphs-fill-1 -> -primary-500 -> #hexColor.
      * Returns null if the value cannot be resolved or if a circular reference is detected.
+     * <p>
+     * Results are memoized in the snapshot until one of the constants along the alias chain changes.
      */
     public String resolveConstantValue(@NotNull String name) {
-        Set<String> visited = new HashSet<>();
-        return doResolveConstantValue(name, visited);
+        return snapshot.resolve(name);
     }
 
-    private String doResolveConstantValue(@NotNull String name, @NotNull Set<String> visited) {
-        if (!globalConstantMap.containsKey(name)) {
-            return null;
-        }
-        if (!visited.add(name)) {
-            return null;
-        }
-        String rawVal = globalConstantMap.get(name);
-        if (rawVal.startsWith("-")) {
-            return doResolveConstantValue(rawVal.substring(1), visited);
-        }
-        return rawVal;
+    /**
+     * Returns the hit and miss counts of the resolved-value cache.
+     */
+    public CacheStats getResolveCacheStats() {
+        return snapshot.getResolveStats();
     }
 
     /**
      * Registers a file listener.
      * Uses MessageBus and BulkFileListener instead of the deprecated addVirtualFileListener API.
-     * When a `.css` file changes, and the content of its `.root` block is modified,
-     * a debounced global re-scan is triggered.
+     * All CSS files touched by a batch of events are collected in a single project-level queue,
+     * which is processed once in the background after a debounce delay. Deleted and moved files,
+     * including the contents of deleted or moved directories, are updated incrementally.
      */
     public void registerFileListener() {
-        final Map<VirtualFile, Alarm> fileAlarms = new HashMap<>();
-
         project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
             @Override
             public void after(@NotNull List<? extends VFileEvent> events) {
-                for (com.intellij.openapi.vfs.newvfs.events.VFileEvent event : events) {
-                    VirtualFile file = event.getFile();
-                    if (file == null || !file.getName().endsWith(".css")) {
-                        continue;
+                boolean queued = false;
+                for (VFileEvent event : events) {
+                    if (event instanceof VFileDeleteEvent || event instanceof VFileMoveEvent
+                            || (event instanceof VFilePropertyChangeEvent propertyChange && propertyChange.isRename())) {
+                        queued |= queueWithCachedDescendants(event.getFile());
+                    } else if (event instanceof VFileCopyEvent copyEvent) {
+                        queued |= queueCssFile(copyEvent.findCreatedFile());
+                    } else if (event instanceof VFileContentChangeEvent || event instanceof VFileCreateEvent) {
+                        queued |= queueCssFile(event.getFile());
                     }
+                }
+                if (queued) {
+                    updateAlarm.cancelAllRequests();
+                    updateAlarm.addRequest(FxCssService.this::processPendingFiles, DEBOUNCE_DELAY);
+                }
+            }
 
-                    if (event instanceof com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent) {
-                        String text = getDocumentText(file);
-                        String newRootBlock = extractRootBlock(text);
-                        if (newRootBlock == null) {
-                            fileConstantsCache.remove(file);
-                            debounceScan(file);
-                            return;
-                        }
-                        debounceScan(file);
-                    } else if (event instanceof com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent) {
-                        String text = getDocumentText(file);
-                        String newRootBlock = extractRootBlock(text);
-                        if (newRootBlock != null) {
-                            debounceScan(file);
-                        }
-                    } else if (event instanceof com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent) {
-                        fileConstantsCache.remove(file);
-                        scanAllCssFiles();
-                    }
+            private boolean queueCssFile(VirtualFile file) {
+                if (file == null || file.isDirectory() || !file.getName().endsWith(".css")) {
+                    return false;
                 }
+                pendingFiles.add(file);
+                return true;
             }
 
-            private void debounceScan(VirtualFile file) {
-                Alarm alarm = fileAlarms.computeIfAbsent(file, k -> new Alarm(Alarm.ThreadToUse.POOLED_THREAD, FxCssService.this));
-                if (!alarm.isDisposed()) {
-                    alarm.cancelAllRequests();
-                    alarm.addRequest(() -> {
-                        processFile(file);
-                        recalcGlobalConstants();
-                        refreshEditorsAndRestart();
-                    }, DEBOUNCE_DELAY);
+            private boolean queueWithCachedDescendants(VirtualFile file) {
+                if (file == null) {
+                    return false;
                 }
+                if (!file.isDirectory()) {
+                    if (fileConstantsCache.containsKey(file)) {
+                        // a file renamed away from .css still has to be removed
+                        pendingFiles.add(file);
+                        return true;
+                    }
+                    return queueCssFile(file);
+                }
+                boolean queued = false;
+                for (VirtualFile cached : fileConstantsCache.keySet()) {
+                    if (VfsUtilCore.isAncestor(file, cached, true)) {
+                        pendingFiles.add(cached);
+                        queued = true;
+                    }
+                }
+                return queued;
             }
         });
     }
 
     /**
-     * Commits all documents, repaints all open editors, and restarts the highlighting daemon.
+     * Processes all queued files in one pass, publishes a single snapshot and refreshes the editors
+     * once for the whole batch.
+     * Files that no longer exist or are no longer stylesheets are removed from the caches.
      */
-    private void refreshEditorsAndRestart() {
+    private void processPendingFiles() {
+        List<VirtualFile> files = new ArrayList<>(pendingFiles);
+        pendingFiles.removeAll(files);
+        if (files.isEmpty()) return;
+
+        Map<VirtualFile, FileConstants> updates = new HashMap<>();
+        for (VirtualFile file : files) {
+            if (file.isValid() && file.getName().endsWith(".css")) {
+                updates.put(file, readFileConstants(file));
+            } else {
+                updates.put(file, null);
+            }
+        }
+
+        Set<String> changed;
+        synchronized (this) {
+            Set<String> batchChanges = new HashSet<>();
+            updates.forEach((file, constants) -> batchChanges.addAll(updateFileConstants(file, constants)));
+            changed = publish(batchChanges);
+        }
+        refreshEditors(changed);
+    }
+
+    /**
+     * Restarts highlighting for the open CSS files that reference at least one of the changed constants.
+     * Files that do not mention any of them are left alone.
+     */
+    private void refreshEditors(@NotNull Set<String> changedNames) {
+        if (changedNames.isEmpty()) return;
         ApplicationManager.getApplication().invokeLater(() -> {
-            PsiDocumentManager.getInstance(project).commitAllDocuments();
-            FileEditorManager fileEditorManager = FileEditorManager.getInstance(project);
-            for (var editor : fileEditorManager.getAllEditors()) {
-                editor.getComponent().repaint();
+            if (project.isDisposed()) return;
+            PsiDocumentManager psiDocumentManager = PsiDocumentManager.getInstance(project);
+            DaemonCodeAnalyzer daemonCodeAnalyzer = DaemonCodeAnalyzer.getInstance(project);
+            for (VirtualFile file : FileEditorManager.getInstance(project).getOpenFiles()) {
+                if (!file.getName().endsWith(".css")) continue;
+                Document document = FileDocumentManager.getInstance().getDocument(file);
+                if (document == null || !referencesAny(document.getImmutableCharSequence(), changedNames)) continue;
+                PsiFile psiFile = psiDocumentManager.getPsiFile(document);
+                if (psiFile != null) {
+                    daemonCodeAnalyzer.restart(psiFile);
+                }
             }
-            DaemonCodeAnalyzer.getInstance(project).restart();
         });
     }
 
+    /**
+     * Returns true if the text contains a reference like `-name` to one of the given constants.
+     */
+    private static boolean referencesAny(@NotNull CharSequence text, @NotNull Set<String> names) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '-' && (i == 0 || !isNameChar(text.charAt(i - 1)))) {
+                int end = i + 1;
+                while (end < length && isNameChar(text.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1 && names.contains(text.subSequence(i + 1, end).toString())) {
+                    return true;
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+    }
+
     @Override
     public void dispose() {
+        saveState();
+    }
 
+    /**
+     * The constants defined by a single file, together with the source key they were recorded under
+     * and the modification stamp of the file they were read from.
+     */
+    private record FileConstants(@NotNull String source, long stamp, @NotNull Map<String, String> constants) {
     }
 }
@@ -15,8 +15,9 @@ public class FxCssStartupActivity implements ProjectActivity {
     public @Nullable Object execute(@NotNull Project project, @NotNull Continuation<? super Unit> continuation) {
         // Write initialization logic here, such as scanning CSS files, registering listeners, etc.
         FxCssService service = FxCssService.getInstance(project);
-        service.scanAllCssFiles();
+        service.restoreState();
         service.registerFileListener();
+        service.scanAllCssFiles();
         return CompletableFuture.completedFuture(null);
     }
 
@@ -0,0 +1,46 @@
+package com.dlsc.fxtoolkit;
+
+import com.dlsc.fxtoolkit.util.BundledConstants;
+import com.dlsc.fxtoolkit.util.CssPsiUtil;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reports constants declared in `.root` blocks that are not referenced by any stylesheet.
+ * <p>
+ * Each check is a single lookup in the {@link FxCssUsageIndex}, which stops at the first usage,
+ * so the inspection stays fast even for thousands of design tokens.
+ * <p>
+ * Overrides of the constants of modena.css, such as `-fx-base` or `-fx-accent`, are never reported:
+ * the JavaFX runtime uses them through modena.css, which is not part of the project.
+ */
+public class FxCssUnusedConstantInspection extends LocalInspectionTool {
+
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        Project project = holder.getProject();
+        GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+        return new PsiElementVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                if (!(element instanceof CssDeclaration declaration)) {
+                    return;
+                }
+                String name = CssPsiUtil.getDeclaredConstantName(declaration);
+                if (name == null || BundledConstants.getModenaConstants().containsKey(name)
+                        || FxCssUsageIndex.hasUsages(project, name, scope)) {
+                    return;
+                }
+                PsiElement anchor = declaration.getPropertyNameElement() != null ? declaration.getPropertyNameElement() : declaration;
+                holder.registerProblem(anchor, "Constant '-" + name + "' is never used", ProblemHighlightType.LIKE_UNUSED_SYMBOL);
+            }
+        };
+    }
+}
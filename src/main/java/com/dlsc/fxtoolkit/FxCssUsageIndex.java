@@ -0,0 +1,143 @@
+package com.dlsc.fxtoolkit;
+
+import com.dlsc.fxtoolkit.util.ConstantUsageScanner;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.css.CssTerm;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.Processor;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A persistent index that maps the name of every referenced constant (without the leading dash)
+ * to the offsets of its references in declaration values.
+ * <p>
+ * It is the reverse of the {@link FxCssConstantIndex} and answers Find Usages, usage counts and the
+ * unused-constant inspection without opening any stylesheet that does not reference the constant.
+ * The content is read by the {@link ConstantUsageScanner}, so no PSI is built while indexing.
+ */
+public final class FxCssUsageIndex extends FileBasedIndexExtension<String, int[]> {
+
+    public static final ID<String, int[]> NAME = ID.create("com.dlsc.fxtoolkit.constantUsages");
+
+    private static final int VERSION = 1;
+
+    @Override
+    public @NotNull ID<String, int[]> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, int[], FileContent> getIndexer() {
+        return inputData -> ConstantUsageScanner.scan(inputData.getContentAsText());
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<int[]> getValueExternalizer() {
+        return OffsetsExternalizer.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+        return file -> "css".equalsIgnoreCase(file.getExtension());
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Passes every term within the given scope that references the given constant to the processor.
+     * Only files that contain a reference are loaded. This method must be executed within a ReadAction.
+     *
+     * @return false if the processor stopped the iteration
+     */
+    public static boolean processUsages(@NotNull Project project, @NotNull String name, @NotNull GlobalSearchScope scope,
+                                        @NotNull Processor<? super CssTerm> processor) {
+        PsiManager psiManager = PsiManager.getInstance(project);
+        String reference = "-" + name;
+        return FileBasedIndex.getInstance().processValues(NAME, name, null, (file, offsets) -> {
+            PsiFile psiFile = psiManager.findFile(file);
+            if (psiFile == null) return true;
+            for (int offset : offsets) {
+                CssTerm term = PsiTreeUtil.getParentOfType(psiFile.findElementAt(offset), CssTerm.class, false);
+                if (term != null && term.textMatches(reference) && !processor.process(term)) {
+                    return false;
+                }
+            }
+            return true;
+        }, scope);
+    }
+
+    /**
+     * Returns the number of references to the given constant within the given scope, straight from the index.
+     */
+    public static int countUsages(@NotNull Project project, @NotNull String name, @NotNull GlobalSearchScope scope) {
+        int[] count = new int[1];
+        FileBasedIndex.getInstance().processValues(NAME, name, null, (file, offsets) -> {
+            count[0] += offsets.length;
+            return true;
+        }, scope);
+        return count[0];
+    }
+
+    /**
+     * Returns true if the given constant is referenced at least once within the given scope.
+     */
+    public static boolean hasUsages(@NotNull Project project, @NotNull String name, @NotNull GlobalSearchScope scope) {
+        return !FileBasedIndex.getInstance().processValues(NAME, name, null, (file, offsets) -> false, scope);
+    }
+
+    private static final class OffsetsExternalizer implements DataExternalizer<int[]> {
+
+        static final OffsetsExternalizer INSTANCE = new OffsetsExternalizer();
+
+        @Override
+        public void save(@NotNull DataOutput out, int[] offsets) throws IOException {
+            DataInputOutputUtil.writeINT(out, offsets.length);
+            int previous = 0;
+            for (int offset : offsets) {
+                // offsets are ascending, deltas keep the variable-length ints short
+                DataInputOutputUtil.writeINT(out, offset - previous);
+                previous = offset;
+            }
+        }
+
+        @Override
+        public int[] read(@NotNull DataInput in) throws IOException {
+            int[] offsets = new int[DataInputOutputUtil.readINT(in)];
+            int previous = 0;
+            for (int i = 0; i < offsets.length; i++) {
+                previous += DataInputOutputUtil.readINT(in);
+                offsets[i] = previous;
+            }
+            return offsets;
+        }
+    }
+}
@@ -1,19 +1,13 @@
 package com.dlsc.fxtoolkit.components;
 
 import com.dlsc.fxtoolkit.model.GradientInfo;
-import com.dlsc.fxtoolkit.model.GradientType;
 import com.intellij.ui.JBColor;
 import com.intellij.util.ui.JBUI;
-import org.jetbrains.annotations.NotNull;
 
 import javax.swing.JPanel;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.LinearGradientPaint;
-import java.awt.Paint;
-import java.awt.Point;
-import java.awt.RadialGradientPaint;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 
@@ -54,9 +48,8 @@ public class GradientPreviewPanel extends JPanel {
             int rectX = (getWidth() - previewWidth) / 2;
             int rectY = (getHeight() - previewHeight) / 2;
             Rectangle previewRect = new Rectangle(rectX, rectY, previewWidth, previewHeight);
-            // Apply the gradient paint and fill the rectangle
-            g2d.setPaint(getPaint(previewRect));
-            g2d.fill(previewRect);
+            // Fill the rectangle with the gradient, a proportional gradient is stretched to it
+            gradientInfo.fill(g2d, previewRect, previewRect.x, previewRect.y, previewRect.width, previewRect.height);
 
             // Draw a border around the preview rectangle
             g2d.setColor(JBColor.border());
@@ -66,24 +59,4 @@ public class GradientPreviewPanel extends JPanel {
             g2d.dispose();
         }
     }
-
-    private @NotNull Paint getPaint(Rectangle previewRect) {
-        Paint paint;
-        if (gradientInfo.type == GradientType.LINEAR) {
-            // For Linear Gradients, calculate start and end points relative to the preview rectangle
-            Point start = new Point((int) (previewRect.x + previewRect.width * gradientInfo.startX),
-                                    (int) (previewRect.y + previewRect.height * gradientInfo.startY));
-            Point end = new Point((int) (previewRect.x + previewRect.width * gradientInfo.endX),
-                                  (int) (previewRect.y + previewRect.height * gradientInfo.endY));
-            paint = new LinearGradientPaint(start, end, gradientInfo.fractions, gradientInfo.colors);
-        } else { // RADIAL
-            // For Radial Gradients, the center is relative to the preview rectangle
-            Point center = new Point((int) (previewRect.x + previewRect.width * gradientInfo.centerX),
-                                     (int) (previewRect.y + previewRect.height * gradientInfo.centerY));
-            // The radius is based on the average of the width and height of the preview area
-            float radius = (float) ((previewRect.width + previewRect.height) / 2.0 * gradientInfo.radius / 2.0);
-            paint = new RadialGradientPaint(center, radius, gradientInfo.fractions, gradientInfo.colors);
-        }
-        return paint;
-    }
 }
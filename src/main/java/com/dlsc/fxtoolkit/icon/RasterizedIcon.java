@@ -0,0 +1,59 @@
+package com.dlsc.fxtoolkit.icon;
+
+import com.intellij.ui.JBColor;
+import com.intellij.ui.scale.JBUIScale;
+import com.intellij.util.ui.ImageUtil;
+import com.intellij.util.ui.StartupUiUtil;
+
+import javax.swing.Icon;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Base class of the preview icons. The icon is rendered once into an image for the scale of the
+ * graphics it is painted on and the current theme, so repeated paints, e.g. while scrolling
+ * through a gutter full of markers, are a single image blit.
+ * <p>
+ * HiDPI is handled by the platform: the image is created with {@link ImageUtil#createImage(Graphics, int, int, int)},
+ * which returns a scaled image for HiDPI graphics, and drawn with {@link StartupUiUtil#drawImage}.
+ */
+public abstract class RasterizedIcon implements Icon {
+
+    private volatile Raster raster;
+
+    /**
+     * Paints the icon at the origin, in user space. Antialiasing is already enabled.
+     */
+    protected abstract void paintRaster(Graphics2D g);
+
+    @Override
+    public void paintIcon(Component c, Graphics g, int x, int y) {
+        double scale = JBUIScale.sysScale((Graphics2D) g);
+        boolean bright = JBColor.isBright();
+        Raster current = raster;
+        if (current == null || current.scale() != scale || current.bright() != bright) {
+            current = new Raster(scale, bright, render(g));
+            raster = current;
+        }
+        StartupUiUtil.drawImage(g, current.image(), x, y, null);
+    }
+
+    private Image render(Graphics g) {
+        BufferedImage image = ImageUtil.createImage(g, Math.max(1, getIconWidth()), Math.max(1, getIconHeight()), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            paintRaster(g2d);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    private record Raster(double scale, boolean bright, Image image) {
+    }
+}
@@ -3,11 +3,7 @@ package com.dlsc.fxtoolkit.icon;
 import com.intellij.ui.JBColor;
 import org.jetbrains.annotations.NotNull;
 
-import javax.swing.Icon;
-import java.awt.Component;
-import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
@@ -22,7 +18,7 @@ import java.util.regex.Pattern;
  * It parses the path data and scales it to fit the icon's dimensions.
  * Supports M, L, H, V, C, S, Q, T, A, Z commands.
  */
-public class SvgIcon implements Icon {
+public class SvgIcon extends RasterizedIcon {
 
     private final String pathData;
     private final int width;
@@ -50,27 +46,21 @@ public class SvgIcon implements Icon {
     }
 
     @Override
-    public void paintIcon(Component c, Graphics g, int x, int y) {
-        Graphics2D g2d = (Graphics2D) g.create();
-
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
+    protected void paintRaster(Graphics2D g2d) {
         if (parseFailed || parsedPath == null) {
             g2d.setColor(JBColor.RED);
-            g2d.drawString("!", x + (width / 2) - 2, y + (height / 2) + 4);
+            g2d.drawString("!", (width / 2) - 2, (height / 2) + 4);
             return;
         }
 
         Rectangle2D bounds = parsedPath.getBounds2D();
         if (bounds.getWidth() == 0 || bounds.getHeight() == 0) {
-            g2d.dispose();
             return;
         }
 
-        AffineTransform transform = getAffineTransform(x, y, bounds);
+        AffineTransform transform = getAffineTransform(0, 0, bounds);
         g2d.setColor(JBColor.foreground());
         g2d.fill(transform.createTransformedShape(parsedPath));
-        g2d.dispose();
     }
 
     private @NotNull AffineTransform getAffineTransform(int x, int y, Rectangle2D bounds) {
@@ -0,0 +1,27 @@
+package com.dlsc.fxtoolkit.model;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Hit and miss counts of a cache, as reported by the plugin's caches.
+ */
+public record CacheStats(long hits, long misses) {
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", hitRate=" + String.format("%.1f%%", hitRate() * 100) +
+                '}';
+    }
+}
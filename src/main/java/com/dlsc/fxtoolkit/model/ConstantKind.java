@@ -0,0 +1,13 @@
+package com.dlsc.fxtoolkit.model;
+
+/**
+ * The kind of value a constant resolves to.
+ */
+public enum ConstantKind {
+    COLOR,
+    GRADIENT,
+    PAINT_LIST,
+    SVG_PATH,
+    SIZE,
+    OTHER
+}
@@ -0,0 +1,357 @@
+package com.dlsc.fxtoolkit.model;
+
+import com.dlsc.fxtoolkit.util.ColorConverter;
+import com.dlsc.fxtoolkit.util.ColorFunctionEvaluator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * An immutable, versioned snapshot of the global constant table.
+ * <p>
+ * Snapshots are swapped atomically by the FxCssService after every merged batch of changes,
+ * so readers never observe a half-updated table and never have to lock. Resolved values and
+ * evaluated colors are memoized per snapshot; a derived snapshot carries over the memoized values
+ * of all names that were not invalidated by the change.
+ * <p>
+ * A derived snapshot shares its predecessor and only records the changed constants and the invalidated
+ * names, so publishing a change costs time proportional to the change rather than to the whole table.
+ * Adjacent layers are merged when the newer one is at least half as large as the older one, like the
+ * digits of a binary counter, which keeps the number of layers logarithmic in the number of changes.
+ * Once the layers together are as large as half of the base table, they are flattened into a new base.
+ */
+public final class ConstantTable {
+
+    /**
+     * Marks a name in the resolved-value memo that cannot be resolved.
+     */
+    private static final String UNRESOLVED = "\u0000unresolved";
+
+    /**
+     * Marks a name in a layer that was removed.
+     */
+    private static final String REMOVED = "\u0000removed";
+
+    private final long version;
+
+    /**
+     * The table this one was derived from, or null for a base table.
+     */
+    private final @Nullable ConstantTable parent;
+
+    /**
+     * All raw values for a base table, unmodifiable; the changed raw values, or {@link #REMOVED}, for a layer.
+     */
+    private final Map<String, String> values;
+
+    /**
+     * The names whose memoized resolution in the parent must not be used. Empty for a base table.
+     */
+    private final Set<String> invalidated;
+
+    /**
+     * The number of values in the base table, and the number of values the layers above it record together.
+     */
+    private final int baseSize;
+    private final int layeredSize;
+
+    private final Set<String> cyclicNames;
+    private final Map<String, String> resolved;
+    private final Map<String, Integer> colors;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * The raw values of all constants, built on first use for a layer.
+     */
+    private volatile Map<String, String> constants;
+
+    private ConstantTable(long version, @Nullable ConstantTable parent, Map<String, String> values, Set<String> invalidated,
+                          Set<String> cyclicNames, Map<String, String> resolved, Map<String, Integer> colors,
+                          LongAdder hits, LongAdder misses) {
+        this.version = version;
+        this.parent = parent;
+        this.values = values;
+        this.invalidated = invalidated;
+        this.baseSize = parent != null ? parent.baseSize : values.size();
+        this.layeredSize = parent != null ? parent.layeredSize + values.size() : 0;
+        this.cyclicNames = cyclicNames;
+        this.resolved = resolved;
+        this.colors = colors;
+        this.hits = hits;
+        this.misses = misses;
+        this.constants = parent == null ? values : null;
+    }
+
+    /**
+     * Returns a new, empty table with version 0.
+     */
+    public static @NotNull ConstantTable empty() {
+        return new ConstantTable(0, null, Map.of(), Set.of(), Set.of(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                new LongAdder(), new LongAdder());
+    }
+
+    /**
+     * Returns the successor of this table with the given changes. The memoized resolutions and colors
+     * of the invalidated names are dropped, all others are carried over.
+     *
+     * @param changes     the new raw values of the changed constants, keyed by their name without the leading
+     *                    dash; a null value removes the constant
+     * @param cyclicNames the names that are part of a circular chain of references
+     * @param invalidated the names whose resolution may have changed, including all changed names
+     */
+    public @NotNull ConstantTable derive(@NotNull Map<String, String> changes, @NotNull Set<String> cyclicNames,
+                                         @NotNull Collection<String> invalidated) {
+        Map<String, String> layerValues = new HashMap<>(changes.size() * 2);
+        changes.forEach((name, value) -> layerValues.put(name, value != null ? value : REMOVED));
+        Set<String> layerInvalidated = new HashSet<>(invalidated);
+        Map<String, String> memo = new ConcurrentHashMap<>();
+        Map<String, Integer> colorMemo = new ConcurrentHashMap<>();
+
+        // merge with the layers below that are not much larger, carrying over their still valid memos
+        ConstantTable below = this;
+        while (below.parent != null && below.values.size() <= 2 * layerValues.size()) {
+            copyValid(below.resolved, memo, layerInvalidated);
+            copyValid(below.colors, colorMemo, layerInvalidated);
+            below.values.forEach(layerValues::putIfAbsent);
+            layerInvalidated.addAll(below.invalidated);
+            below = below.parent;
+        }
+
+        ConstantTable next = new ConstantTable(version + 1, below, layerValues, layerInvalidated, Set.copyOf(cyclicNames),
+                memo, colorMemo, hits, misses);
+        if (next.layeredSize * 2 < next.baseSize + 64) {
+            return next;
+        }
+
+        // the layers grew too large to be worth the indirection, flatten them into a new base
+        Map<String, String> flatMemo = new ConcurrentHashMap<>();
+        Map<String, Integer> flatColors = new ConcurrentHashMap<>();
+        for (String name : next.getConstants().keySet()) {
+            String value = next.findMemo(name, table -> table.resolved);
+            if (value != null) flatMemo.put(name, value);
+            Integer color = next.findMemo(name, table -> table.colors);
+            if (color != null) flatColors.put(name, color);
+        }
+        return new ConstantTable(version + 1, null, next.getConstants(), Set.of(), next.cyclicNames,
+                flatMemo, flatColors, hits, misses);
+    }
+
+    private static <V> void copyValid(Map<String, V> from, Map<String, V> to, Set<String> invalidated) {
+        from.forEach((name, value) -> {
+            if (!invalidated.contains(name)) {
+                to.putIfAbsent(name, value);
+            }
+        });
+    }
+
+    /**
+     * Returns the version of this table. It increases with every published change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the raw values of all constants, keyed by their name without the leading dash.
+     * The map is immutable; for a derived table it is built on the first call.
+     */
+    public @NotNull Map<String, String> getConstants() {
+        Map<String, String> result = constants;
+        if (result == null) {
+            Deque<ConstantTable> layers = new ArrayDeque<>();
+            ConstantTable table = this;
+            for (; table.parent != null; table = table.parent) {
+                layers.push(table);
+            }
+            Map<String, String> merged = new HashMap<>(table.values);
+            for (ConstantTable layer : layers) {
+                layer.values.forEach((name, value) -> {
+                    if (value.equals(REMOVED)) {
+                        merged.remove(name);
+                    } else {
+                        merged.put(name, value);
+                    }
+                });
+            }
+            result = Collections.unmodifiableMap(merged);
+            constants = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the names whose resolution may differ between the given older table and this one, or null if
+     * they cannot be told apart without comparing all constants, e.g. because the layers were flattened since.
+     * The result may contain names that did not change.
+     */
+    public @Nullable Set<String> invalidatedSince(@NotNull ConstantTable older) {
+        if (older.version > version) {
+            return null;
+        }
+        Set<ConstantTable> olderLayers = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ConstantTable table = older; table != null; table = table.parent) {
+            olderLayers.add(table);
+        }
+        // the layers of the older table above the common one were merged into the layers walked here
+        Set<String> result = new HashSet<>();
+        for (ConstantTable table = this; !olderLayers.contains(table); table = table.parent) {
+            if (table.parent == null) {
+                return null;
+            }
+            result.addAll(table.invalidated);
+        }
+        return result;
+    }
+
+    public boolean contains(@NotNull String name) {
+        return getRawValue(name) != null;
+    }
+
+    public @Nullable String getRawValue(@NotNull String name) {
+        Map<String, String> all = constants;
+        if (all != null) {
+            return all.get(name);
+        }
+        for (ConstantTable table = this; table != null; table = table.parent) {
+            String value = table.values.get(name);
+            if (value != null) {
+                return value.equals(REMOVED) ? null : value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the memoized value of the given name in this table or, unless a layer in between
+     * invalidated it, in the tables it was derived from.
+     */
+    private <V> @Nullable V findMemo(@NotNull String name, @NotNull Function<ConstantTable, Map<String, V>> memo) {
+        for (ConstantTable table = this; table != null; table = table.parent) {
+            V value = memo.apply(table).get(name);
+            if (value != null) {
+                return value;
+            }
+            if (table.invalidated.contains(name)) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the resolution of the given name is already memoized in this table.
+     */
+    public boolean isMemoized(@NotNull String name) {
+        return findMemo(name, table -> table.resolved) != null;
+    }
+
+    /**
+     * Resolves variable aliases recursively, e.g., graphs-fill-1 -> -primary-500 -> #hexColor.
+     * Returns null if the value cannot be resolved or if a circular reference is detected.
+     */
+    public @Nullable String resolve(@NotNull String name) {
+        String cached = findMemo(name, table -> table.resolved);
+        if (cached != null) {
+            hits.increment();
+            return cached.equals(UNRESOLVED) ? null : cached;
+        }
+        misses.increment();
+
+        String value = doResolve(name);
+        resolved.put(name, value != null ? value : UNRESOLVED);
+        return value;
+    }
+
+    private String doResolve(@NotNull String name) {
+        String current = name;
+        while (!cyclicNames.contains(current)) {
+            String rawVal = getRawValue(current);
+            if (rawVal == null) {
+                return null;
+            }
+            if (!rawVal.startsWith("-")) {
+                return rawVal;
+            }
+            current = rawVal.substring(1);
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the color of the given name is already memoized in this table.
+     */
+    public boolean isColorMemoized(@NotNull String name) {
+        return findMemo(name, table -> table.colors) != null;
+    }
+
+    /**
+     * Evaluates the value of the given constant as a color, following looked-up constants and
+     * `derive(...)` and `ladder(...)` expressions, e.g. -fx-color -> derive(-fx-base, 10%) -> #hexColor.
+     * The color of every constant along the way is memoized, so shared chains are evaluated once.
+     *
+     * @return the color as packed ARGB, or {@link ColorConverter#INVALID} if the value is not a color
+     * or part of a circular reference
+     */
+    public int resolveColor(@NotNull String name) {
+        Integer cached = findMemo(name, table -> table.colors);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        String rawVal = getRawValue(name);
+        int color = rawVal == null || cyclicNames.contains(name)
+                ? ColorConverter.INVALID
+                : ColorFunctionEvaluator.evaluate(rawVal, this);
+        colors.put(name, color);
+        return color;
+    }
+
+    /**
+     * Returns true if the given invalidated constant looks the same in this table as in the given previous one,
+     * so the editors that show it need no refresh.
+     * <p>
+     * A value without references is unchanged if it resolves to the same text. A value that refers to other
+     * constants, like `derive(-b, 20%)` or a gradient with looked-up stops, resolves to the same text even
+     * when the constants it refers to changed. It is only unchanged if both tables evaluate it to the
+     * same valid color, and the previous table had already memoized that color.
+     *
+     * @param hasReferences true if the raw value of the constant refers to other constants
+     */
+    public boolean isUnchangedSince(@NotNull ConstantTable previous, @NotNull String name, boolean hasReferences) {
+        if (!Objects.equals(previous.resolve(name), resolve(name))) {
+            return false;
+        }
+        if (!hasReferences) {
+            return true;
+        }
+        if (!previous.isColorMemoized(name)) {
+            return false;
+        }
+        int color = previous.resolveColor(name);
+        return color != ColorConverter.INVALID && color == resolveColor(name);
+    }
+
+    /**
+     * Returns the hit and miss counts of the resolved-value and color memos, summed over this table
+     * and all tables it was derived from.
+     */
+    public @NotNull CacheStats getResolveStats() {
+        return new CacheStats(hits.sum(), misses.sum());
+    }
+}
@@ -0,0 +1,20 @@
+package com.dlsc.fxtoolkit.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.MultipleGradientPaint;
+
+/**
+ * How a gradient fills the area outside of its start and end, as given by `repeat` or `reflect`.
+ */
+public enum CycleMethod {
+    NO_CYCLE, REFLECT, REPEAT;
+
+    public @NotNull MultipleGradientPaint.CycleMethod toAwt() {
+        return switch (this) {
+            case NO_CYCLE -> MultipleGradientPaint.CycleMethod.NO_CYCLE;
+            case REFLECT -> MultipleGradientPaint.CycleMethod.REFLECT;
+            case REPEAT -> MultipleGradientPaint.CycleMethod.REPEAT;
+        };
+    }
+}
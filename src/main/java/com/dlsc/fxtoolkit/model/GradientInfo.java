@@ -1,21 +1,234 @@
 package com.dlsc.fxtoolkit.model;
 
+import org.jetbrains.annotations.NotNull;
+
 import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.LinearGradientPaint;
+import java.awt.MultipleGradientPaint;
+import java.awt.RadialGradientPaint;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable, parsed JavaFX `linear-gradient` or `radial-gradient`.
+ * <p>
+ * Coordinates follow JavaFX: if the gradient is proportional, they are fractions of the painted area,
+ * otherwise they are pixels relative to its top left corner. Fractions are sorted and strictly increasing,
+ * as required by AWT.
+ * <p>
+ * Instances are values: equal gradients are equal, and the hash is computed once. The AWT paint is built
+ * once per instance in gradient space and mapped to every painted area by a transform, so interned
+ * instances share it between all icons and previews.
+ */
+public final class GradientInfo {
 
-public class GradientInfo {
-    public final Color[] colors;
-    public final float[] fractions;
-    public final GradientType type;
+    private final GradientType type;
+    private final Color[] colors;
+    private final float[] fractions;
+    private final CycleMethod cycleMethod;
+    private final boolean proportional;
 
     // For linear gradients
-    public float startX = 0f, startY = 0f, endX = 1f, endY = 0f;
+    private final float startX, startY, endX, endY;
 
     // For radial gradients
-    public float centerX = 0.5f, centerY = 0.5f, radius = 1f;
+    private final float centerX, centerY, radius, focusAngle, focusDistance;
+
+    private final int hash;
+
+    /**
+     * The paint in gradient space, created on first use. Paints are immutable, so a racing creation is harmless.
+     */
+    private volatile MultipleGradientPaint paintTemplate;
 
-    public GradientInfo(Color[] colors, float[] fractions, GradientType type) {
-        this.colors = colors;
-        this.fractions = fractions;
+    private GradientInfo(GradientType type, Color[] colors, float[] fractions, CycleMethod cycleMethod, boolean proportional,
+                         float startX, float startY, float endX, float endY,
+                         float centerX, float centerY, float radius, float focusAngle, float focusDistance) {
         this.type = type;
+        this.colors = colors.clone();
+        this.fractions = fractions.clone();
+        this.cycleMethod = cycleMethod;
+        this.proportional = proportional;
+        this.startX = startX;
+        this.startY = startY;
+        this.endX = endX;
+        this.endY = endY;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.radius = radius;
+        this.focusAngle = focusAngle;
+        this.focusDistance = focusDistance;
+        this.hash = computeHash();
+    }
+
+    public static @NotNull GradientInfo linear(float startX, float startY, float endX, float endY, boolean proportional,
+                                               @NotNull CycleMethod cycleMethod, @NotNull Color[] colors, @NotNull float[] fractions) {
+        return new GradientInfo(GradientType.LINEAR, colors, fractions, cycleMethod, proportional,
+                startX, startY, endX, endY, 0.5f, 0.5f, 0.5f, 0f, 0f);
+    }
+
+    /**
+     * @param focusAngle    the direction from the center to the focus, in degrees
+     * @param focusDistance the distance from the center to the focus, as a fraction of the radius
+     */
+    public static @NotNull GradientInfo radial(float focusAngle, float focusDistance, float centerX, float centerY, float radius,
+                                               boolean proportional, @NotNull CycleMethod cycleMethod,
+                                               @NotNull Color[] colors, @NotNull float[] fractions) {
+        return new GradientInfo(GradientType.RADIAL, colors, fractions, cycleMethod, proportional,
+                0f, 0f, 1f, 0f, centerX, centerY, radius, focusAngle, focusDistance);
+    }
+
+    public @NotNull GradientType getType() {
+        return type;
+    }
+
+    public @NotNull Color[] getColors() {
+        return colors.clone();
+    }
+
+    public @NotNull float[] getFractions() {
+        return fractions.clone();
+    }
+
+    public @NotNull CycleMethod getCycleMethod() {
+        return cycleMethod;
+    }
+
+    public boolean isProportional() {
+        return proportional;
+    }
+
+    public float getStartX() {
+        return startX;
+    }
+
+    public float getStartY() {
+        return startY;
+    }
+
+    public float getEndX() {
+        return endX;
+    }
+
+    public float getEndY() {
+        return endY;
+    }
+
+    public float getCenterX() {
+        return centerX;
+    }
+
+    public float getCenterY() {
+        return centerY;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    public float getFocusAngle() {
+        return focusAngle;
+    }
+
+    public float getFocusDistance() {
+        return focusDistance;
+    }
+
+    /**
+     * Fills the given shape with this gradient, mapped to the given area. A proportional gradient is stretched
+     * to the area, so a radial gradient becomes an ellipse in a non-square area, as in JavaFX.
+     *
+     * @param shape the shape to fill, in the same coordinates as the area
+     */
+    public void fill(@NotNull Graphics2D g2d, @NotNull Shape shape, double x, double y, double width, double height) {
+        AffineTransform toArea = AffineTransform.getTranslateInstance(x, y);
+        if (proportional) {
+            toArea.scale(width, height);
+        }
+        Shape gradientShape;
+        try {
+            gradientShape = toArea.createInverse().createTransformedShape(shape);
+        } catch (NoninvertibleTransformException e) {
+            // an empty area, nothing to paint
+            return;
+        }
+
+        Graphics2D g = (Graphics2D) g2d.create();
+        try {
+            g.transform(toArea);
+            g.setPaint(getPaintTemplate());
+            g.fill(gradientShape);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Returns the paint of this gradient in gradient space: the unit square if the gradient is proportional,
+     * pixels otherwise. The paint is shared by all callers.
+     */
+    public @NotNull MultipleGradientPaint getPaintTemplate() {
+        MultipleGradientPaint paint = paintTemplate;
+        if (paint == null) {
+            paint = createPaintTemplate();
+            paintTemplate = paint;
+        }
+        return paint;
+    }
+
+    private MultipleGradientPaint createPaintTemplate() {
+        if (type == GradientType.LINEAR) {
+            Point2D.Float start = new Point2D.Float(startX, startY);
+            Point2D.Float end = new Point2D.Float(endX, endY);
+            if (start.equals(end)) {
+                // AWT rejects a gradient of zero length
+                end.y = Math.nextUp(end.y);
+            }
+            return new LinearGradientPaint(start, end, fractions, colors, cycleMethod.toAwt());
+        }
+
+        double angle = Math.toRadians(focusAngle);
+        double distance = focusDistance * radius;
+        Point2D.Float center = new Point2D.Float(centerX, centerY);
+        Point2D.Double focus = new Point2D.Double(centerX + distance * Math.cos(angle), centerY + distance * Math.sin(angle));
+        return new RadialGradientPaint(center, radius, focus, fractions, colors, cycleMethod.toAwt());
+    }
+
+    private int computeHash() {
+        int result = Objects.hash(type, cycleMethod, proportional, startX, startY, endX, endY,
+                centerX, centerY, radius, focusAngle, focusDistance);
+        result = 31 * result + Arrays.hashCode(colors);
+        return 31 * result + Arrays.hashCode(fractions);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GradientInfo that)) return false;
+        return hash == that.hash
+                && type == that.type
+                && cycleMethod == that.cycleMethod
+                && proportional == that.proportional
+                && Float.compare(startX, that.startX) == 0
+                && Float.compare(startY, that.startY) == 0
+                && Float.compare(endX, that.endX) == 0
+                && Float.compare(endY, that.endY) == 0
+                && Float.compare(centerX, that.centerX) == 0
+                && Float.compare(centerY, that.centerY) == 0
+                && Float.compare(radius, that.radius) == 0
+                && Float.compare(focusAngle, that.focusAngle) == 0
+                && Float.compare(focusDistance, that.focusDistance) == 0
+                && Arrays.equals(fractions, that.fractions)
+                && Arrays.equals(colors, that.colors);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
     }
 }
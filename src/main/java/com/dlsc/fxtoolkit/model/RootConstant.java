@@ -0,0 +1,11 @@
+package com.dlsc.fxtoolkit.model;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A single constant declared inside a `.root` block, as stored in the constant index.
+ * The name is the index key and the file is supplied by the index, so only the raw
+ * value and the offset of the declaration within its file are kept here.
+ */
+public record RootConstant(@NotNull String value, int offset) {
+}
@@ -0,0 +1,178 @@
+package com.dlsc.fxtoolkit.refactoring;
+
+import com.dlsc.fxtoolkit.FxCssConstantIndex;
+import com.dlsc.fxtoolkit.FxCssPsiReference;
+import com.dlsc.fxtoolkit.FxCssUsageIndex;
+import com.dlsc.fxtoolkit.util.CssPsiUtil;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.psi.css.CssTerm;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.usageView.UsageInfo;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared helpers of the constant refactorings.
+ * <p>
+ * Usages are located through the {@link FxCssUsageIndex}, and all edits are applied directly to the
+ * documents, from the end of each file to its start, with a single commit per file. This keeps bulk
+ * migrations fast, as no PSI is reparsed between two edits of the same file.
+ */
+final class ConstantRefactoringUtil {
+
+    private ConstantRefactoringUtil() {
+    }
+
+    /**
+     * Returns the constant declaration at the caret: either the declaration whose property name
+     * is at the caret, or the declaration a `-name` reference at the caret resolves to.
+     */
+    static @Nullable CssDeclaration findConstantDeclaration(@Nullable Editor editor, @Nullable PsiFile file) {
+        if (editor == null || file == null) {
+            return null;
+        }
+        return findConstantDeclaration(file.findElementAt(editor.getCaretModel().getOffset()));
+    }
+
+    static @Nullable CssDeclaration findConstantDeclaration(@Nullable PsiElement element) {
+        if (element == null) {
+            return null;
+        }
+        if (element instanceof CssDeclaration declaration) {
+            return CssPsiUtil.getDeclaredConstantName(declaration) != null ? declaration : null;
+        }
+        CssTerm term = PsiTreeUtil.getParentOfType(element, CssTerm.class, false);
+        if (term != null) {
+            for (PsiReference reference : term.getReferences()) {
+                if (reference instanceof FxCssPsiReference && reference.resolve() instanceof CssDeclaration declaration) {
+                    return declaration;
+                }
+            }
+            return null;
+        }
+        CssDeclaration declaration = PsiTreeUtil.getParentOfType(element, CssDeclaration.class, false);
+        if (declaration == null || declaration.getPropertyNameElement() == null
+                || !PsiTreeUtil.isAncestor(declaration.getPropertyNameElement(), element, false)) {
+            return null;
+        }
+        return CssPsiUtil.getDeclaredConstantName(declaration) != null ? declaration : null;
+    }
+
+    /**
+     * Returns all declarations of the given constant in the project's own stylesheets, starting with the
+     * given one. Themes often declare the same constant in several stylesheets, e.g. a dark override of
+     * a light base. This method must be executed within a ReadAction.
+     */
+    static @NotNull List<CssDeclaration> findDeclarations(@NotNull Project project, @NotNull String name,
+                                                          @NotNull CssDeclaration declaration) {
+        List<CssDeclaration> declarations = new ArrayList<>();
+        declarations.add(declaration);
+        PsiManager psiManager = PsiManager.getInstance(project);
+        FileBasedIndex.getInstance().processValues(FxCssConstantIndex.NAME, name, null, (file, constant) -> {
+            PsiFile psiFile = psiManager.findFile(file);
+            if (psiFile == null) return true;
+            CssDeclaration found = PsiTreeUtil.getParentOfType(psiFile.findElementAt(constant.offset()), CssDeclaration.class, false);
+            if (found != null && !found.equals(declaration) && name.equals(CssPsiUtil.getDeclaredConstantName(found))) {
+                declarations.add(found);
+            }
+            return true;
+        }, GlobalSearchScope.projectScope(project));
+        return declarations;
+    }
+
+    /**
+     * Returns the references to the given constant in the project's own stylesheets.
+     */
+    static UsageInfo @NotNull [] findUsages(@NotNull Project project, @NotNull String name) {
+        List<UsageInfo> usages = new ArrayList<>();
+        FxCssUsageIndex.processUsages(project, name, GlobalSearchScope.projectScope(project), term -> {
+            usages.add(new UsageInfo(term));
+            return true;
+        });
+        return usages.toArray(UsageInfo.EMPTY_ARRAY);
+    }
+
+    /**
+     * Replaces the given ranges in one pass per file. Ranges of the same file must not overlap.
+     * Must be called within a write command.
+     */
+    static void applyReplacements(@NotNull Project project, @NotNull List<Replacement> replacements) {
+        Map<PsiFile, List<Replacement>> byFile = new LinkedHashMap<>();
+        for (Replacement replacement : replacements) {
+            byFile.computeIfAbsent(replacement.file(), k -> new ArrayList<>()).add(replacement);
+        }
+
+        PsiDocumentManager psiDocumentManager = PsiDocumentManager.getInstance(project);
+        byFile.forEach((file, fileReplacements) -> {
+            Document document = psiDocumentManager.getDocument(file);
+            if (document == null) {
+                return;
+            }
+            psiDocumentManager.doPostponedOperationsAndUnblockDocument(document);
+            fileReplacements.sort(Comparator.comparingInt((Replacement r) -> r.range().getStartOffset()).reversed());
+            for (Replacement replacement : fileReplacements) {
+                document.replaceString(replacement.range().getStartOffset(), replacement.range().getEndOffset(), replacement.text());
+            }
+            psiDocumentManager.commitDocument(document);
+        });
+    }
+
+    /**
+     * Returns the range to delete when removing the given declaration: the declaration itself,
+     * its terminating semicolon and, if nothing else is on the line, the whole line.
+     */
+    static @NotNull TextRange getRemovalRange(@NotNull Document document, @NotNull TextRange declarationRange) {
+        CharSequence text = document.getImmutableCharSequence();
+        int start = declarationRange.getStartOffset();
+        int end = declarationRange.getEndOffset();
+        int next = skipBlanks(text, end);
+        if (next < text.length() && text.charAt(next) == ';') {
+            end = next + 1;
+        }
+
+        int lineStart = start;
+        while (lineStart > 0 && (text.charAt(lineStart - 1) == ' ' || text.charAt(lineStart - 1) == '\t')) {
+            lineStart--;
+        }
+        int lineEnd = skipBlanks(text, end);
+        boolean ownLine = (lineStart == 0 || text.charAt(lineStart - 1) == '\n')
+                && (lineEnd == text.length() || text.charAt(lineEnd) == '\n' || text.charAt(lineEnd) == '\r');
+        if (ownLine) {
+            if (lineEnd < text.length() && text.charAt(lineEnd) == '\r') lineEnd++;
+            if (lineEnd < text.length() && text.charAt(lineEnd) == '\n') lineEnd++;
+            return new TextRange(lineStart, lineEnd);
+        }
+        return new TextRange(start, end);
+    }
+
+    private static int skipBlanks(CharSequence text, int start) {
+        int i = start;
+        while (i < text.length() && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * A single text edit of a refactoring.
+     */
+    record Replacement(@NotNull PsiFile file, @NotNull TextRange range, @NotNull String text) {
+    }
+}
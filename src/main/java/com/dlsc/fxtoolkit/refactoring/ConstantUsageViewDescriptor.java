@@ -0,0 +1,30 @@
+package com.dlsc.fxtoolkit.refactoring;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.usageView.UsageViewBundle;
+import com.intellij.usageView.UsageViewDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Describes the usage view shown when a constant refactoring is previewed.
+ */
+record ConstantUsageViewDescriptor(@NotNull List<? extends PsiElement> declarations, @NotNull String header)
+        implements UsageViewDescriptor {
+
+    @Override
+    public PsiElement @NotNull [] getElements() {
+        return declarations.toArray(PsiElement.EMPTY_ARRAY);
+    }
+
+    @Override
+    public String getProcessedElementsHeader() {
+        return header;
+    }
+
+    @Override
+    public @NotNull String getCodeReferencesText(int usagesCount, int filesCount) {
+        return "References to be changed " + UsageViewBundle.getReferencesString(usagesCount, filesCount);
+    }
+}
@@ -0,0 +1,37 @@
+package com.dlsc.fxtoolkit.refactoring;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.refactoring.ui.RefactoringDialog;
+import com.intellij.ui.components.JBLabel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.JComponent;
+
+/**
+ * Confirms inlining a constant. The refactoring can be previewed before it is applied.
+ */
+class InlineConstantDialog extends RefactoringDialog {
+
+    private final CssDeclaration declaration;
+    private final String name;
+
+    InlineConstantDialog(@NotNull Project project, @NotNull CssDeclaration declaration, @NotNull String name) {
+        super(project, true);
+        this.declaration = declaration;
+        this.name = name;
+        setTitle("Inline Constant");
+        init();
+    }
+
+    @Override
+    protected void doAction() {
+        invokeRefactoring(new InlineConstantProcessor(myProject, declaration));
+    }
+
+    @Override
+    protected @Nullable JComponent createCenterPanel() {
+        return new JBLabel("Inline all usages of -" + name + " and remove the declaration");
+    }
+}
@@ -0,0 +1,38 @@
+package com.dlsc.fxtoolkit.refactoring;
+
+import com.dlsc.fxtoolkit.util.CssPsiUtil;
+import com.intellij.lang.Language;
+import com.intellij.lang.css.CSSLanguage;
+import com.intellij.lang.refactoring.InlineActionHandler;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.refactoring.util.CommonRefactoringUtil;
+
+/**
+ * Inlines a `.root` constant: all references are replaced with its raw value and the declaration is removed.
+ */
+public class InlineConstantHandler extends InlineActionHandler {
+
+    @Override
+    public boolean isEnabledForLanguage(Language language) {
+        return language.isKindOf(CSSLanguage.INSTANCE);
+    }
+
+    @Override
+    public boolean canInlineElement(PsiElement element) {
+        return element instanceof CssDeclaration declaration && CssPsiUtil.getDeclaredConstantName(declaration) != null;
+    }
+
+    @Override
+    public void inlineElement(Project project, Editor editor, PsiElement element) {
+        if (!(element instanceof CssDeclaration declaration) || !CommonRefactoringUtil.checkReadOnlyStatus(project, declaration)) {
+            return;
+        }
+        String name = CssPsiUtil.getDeclaredConstantName(declaration);
+        if (name != null) {
+            new InlineConstantDialog(project, declaration, name).show();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.dlsc.fxtoolkit.refactoring;
+
+import com.dlsc.fxtoolkit.util.CssPsiUtil;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.refactoring.BaseRefactoringProcessor;
+import com.intellij.usageView.UsageInfo;
+import com.intellij.usageView.UsageViewDescriptor;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Replaces every reference to a `.root` constant with the constant's raw value and removes the declaration.
+ * A constant that is declared in several stylesheets of the project, e.g. by a light and a dark theme,
+ * has no single value, so inlining it is reported as a conflict.
+ */
+public class InlineConstantProcessor extends BaseRefactoringProcessor {
+
+    private final CssDeclaration declaration;
+    private final String name;
+    private final String value;
+
+    /**
+     * All declarations of the constant in the project, found together with the usages.
+     */
+    private List<CssDeclaration> declarations;
+
+    public InlineConstantProcessor(@NotNull Project project, @NotNull CssDeclaration declaration) {
+        super(project);
+        this.declaration = declaration;
+        this.name = Objects.requireNonNull(CssPsiUtil.getDeclaredConstantName(declaration));
+        this.value = declaration.getValue() != null ? declaration.getValue().getText().trim() : "";
+        this.declarations = List.of(declaration);
+    }
+
+    @Override
+    protected @NotNull UsageViewDescriptor createUsageViewDescriptor(UsageInfo @NotNull [] usages) {
+        return new ConstantUsageViewDescriptor(List.of(declaration), "Constant to inline");
+    }
+
+    @Override
+    protected UsageInfo @NotNull [] findUsages() {
+        declarations = ConstantRefactoringUtil.findDeclarations(myProject, name, declaration);
+        return ConstantRefactoringUtil.findUsages(myProject, name);
+    }
+
+    @Override
+    protected boolean preprocessUsages(@NotNull Ref<UsageInfo[]> refUsages) {
+        MultiMap<PsiElement, String> conflicts = new MultiMap<>();
+        for (CssDeclaration other : declarations) {
+            if (other != declaration) {
+                conflicts.putValue(other, "Constant '-" + name + "' is also defined in " + other.getContainingFile().getName()
+                        + ", that definition would no longer be used");
+            }
+        }
+        return showConflicts(conflicts, refUsages.get());
+    }
+
+    @Override
+    protected void performRefactoring(UsageInfo @NotNull [] usages) {
+        PsiFile declaringFile = declaration.getContainingFile();
+        Document document = PsiDocumentManager.getInstance(myProject).getDocument(declaringFile);
+        if (document == null) {
+            return;
+        }
+        TextRange removal = ConstantRefactoringUtil.getRemovalRange(document, declaration.getTextRange());
+
+        List<ConstantRefactoringUtil.Replacement> replacements = new ArrayList<>(usages.length + 1);
+        replacements.add(new ConstantRefactoringUtil.Replacement(declaringFile, removal, ""));
+        for (UsageInfo usage : usages) {
+            PsiElement element = usage.getElement();
+            if (element == null) continue;
+            // a self-reference inside the removed declaration disappears with it
+            if (element.getContainingFile() == declaringFile && removal.contains(element.getTextRange())) continue;
+            replacements.add(new ConstantRefactoringUtil.Replacement(element.getContainingFile(), element.getTextRange(), value));
+        }
+        ConstantRefactoringUtil.applyReplacements(myProject, replacements);
+    }
+
+    @Override
+    protected @NotNull String getCommandName() {
+        return "Inline constant -" + name;
+    }
+}
@@ -0,0 +1,78 @@
+package com.dlsc.fxtoolkit.refactoring;
+
+import com.dlsc.fxtoolkit.util.CssPsiUtil;
+import com.dlsc.fxtoolkit.util.RootConstantScanner;
+import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.refactoring.ui.RefactoringDialog;
+import com.intellij.ui.DocumentAdapter;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.FormBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.JComponent;
+import javax.swing.event.DocumentEvent;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Asks for the new name of a constant. The refactoring can be previewed before it is applied.
+ */
+class RenameConstantDialog extends RefactoringDialog {
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("-?[A-Za-z_][A-Za-z0-9_-]*");
+
+    private final CssDeclaration declaration;
+    private final String oldName;
+    private final JBTextField nameField;
+
+    RenameConstantDialog(@NotNull Project project, @NotNull CssDeclaration declaration) {
+        super(project, true);
+        this.declaration = declaration;
+        this.oldName = Objects.requireNonNull(CssPsiUtil.getDeclaredConstantName(declaration));
+        this.nameField = new JBTextField("-" + oldName);
+        nameField.getDocument().addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent e) {
+                validateButtons();
+            }
+        });
+        setTitle("Rename Constant");
+        init();
+    }
+
+    private String getNewName() {
+        String text = nameField.getText().trim();
+        return text.startsWith("-") ? text.substring(1) : text;
+    }
+
+    @Override
+    protected void canRun() throws ConfigurationException {
+        String text = nameField.getText().trim();
+        if (!NAME_PATTERN.matcher(text).matches() || !RootConstantScanner.isConstantName("-" + getNewName())) {
+            throw new ConfigurationException("'" + text + "' is not a valid constant name");
+        }
+        if (getNewName().equals(oldName)) {
+            throw new ConfigurationException("The new name is the same as the old one");
+        }
+    }
+
+    @Override
+    protected void doAction() {
+        invokeRefactoring(new RenameConstantProcessor(myProject, declaration, getNewName()));
+    }
+
+    @Override
+    public @Nullable JComponent getPreferredFocusedComponent() {
+        return nameField;
+    }
+
+    @Override
+    protected @Nullable JComponent createCenterPanel() {
+        return FormBuilder.createFormBuilder()
+                .addLabeledComponent("Rename -" + oldName + " and its usages to:", nameField, true)
+                .getPanel();
+    }
+}
@@ -0,0 +1,44 @@
+package com.dlsc.fxtoolkit.refactoring;
+
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.actionSystem.DataContext;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.refactoring.rename.RenameHandler;
+import com.intellij.refactoring.util.CommonRefactoringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Renames a `.root` constant, either from its declaration or from any of its references.
+ */
+public class RenameConstantHandler implements RenameHandler {
+
+    @Override
+    public boolean isAvailableOnDataContext(@NotNull DataContext dataContext) {
+        return ConstantRefactoringUtil.findConstantDeclaration(
+                CommonDataKeys.EDITOR.getData(dataContext), CommonDataKeys.PSI_FILE.getData(dataContext)) != null;
+    }
+
+    @Override
+    public void invoke(@NotNull Project project, Editor editor, PsiFile file, DataContext dataContext) {
+        rename(project, ConstantRefactoringUtil.findConstantDeclaration(editor, file));
+    }
+
+    @Override
+    public void invoke(@NotNull Project project, PsiElement @NotNull [] elements, DataContext dataContext) {
+        if (elements.length == 1) {
+            rename(project, ConstantRefactoringUtil.findConstantDeclaration(elements[0]));
+        }
+    }
+
+    private static void rename(@NotNull Project project, @Nullable CssDeclaration declaration) {
+        if (declaration == null || !CommonRefactoringUtil.checkReadOnlyStatus(project, declaration)) {
+            return;
+        }
+        new RenameConstantDialog(project, declaration).show();
+    }
+}
@@ -0,0 +1,89 @@
+package com.dlsc.fxtoolkit.refactoring;
+
+import com.dlsc.fxtoolkit.FxCssService;
+import com.dlsc.fxtoolkit.util.CssPsiUtil;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Ref;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.refactoring.BaseRefactoringProcessor;
+import com.intellij.usageView.UsageInfo;
+import com.intellij.usageView.UsageViewDescriptor;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Renames a `.root` constant together with all of its references in the project's stylesheets.
+ * Every declaration of the constant in the project is renamed, so overrides in other stylesheets
+ * of a theme keep matching their references.
+ */
+public class RenameConstantProcessor extends BaseRefactoringProcessor {
+
+    private final CssDeclaration declaration;
+    private final String oldName;
+    private final String newName;
+
+    /**
+     * All declarations of the constant in the project, found together with the usages.
+     */
+    private List<CssDeclaration> declarations;
+
+    /**
+     * @param newName the new name of the constant, without the leading dash
+     */
+    public RenameConstantProcessor(@NotNull Project project, @NotNull CssDeclaration declaration, @NotNull String newName) {
+        super(project);
+        this.declaration = declaration;
+        this.oldName = Objects.requireNonNull(CssPsiUtil.getDeclaredConstantName(declaration));
+        this.newName = newName;
+        this.declarations = List.of(declaration);
+    }
+
+    @Override
+    protected @NotNull UsageViewDescriptor createUsageViewDescriptor(UsageInfo @NotNull [] usages) {
+        return new ConstantUsageViewDescriptor(declarations, "Constant to be renamed to -" + newName);
+    }
+
+    @Override
+    protected UsageInfo @NotNull [] findUsages() {
+        declarations = ConstantRefactoringUtil.findDeclarations(myProject, oldName, declaration);
+        return ConstantRefactoringUtil.findUsages(myProject, oldName);
+    }
+
+    @Override
+    protected boolean preprocessUsages(@NotNull Ref<UsageInfo[]> refUsages) {
+        MultiMap<PsiElement, String> conflicts = new MultiMap<>();
+        if (FxCssService.getInstance(myProject).getSnapshot().contains(newName)) {
+            conflicts.putValue(declaration, "Constant '-" + newName + "' is already defined");
+        }
+        return showConflicts(conflicts, refUsages.get());
+    }
+
+    @Override
+    protected void performRefactoring(UsageInfo @NotNull [] usages) {
+        String replacement = "-" + newName;
+        List<ConstantRefactoringUtil.Replacement> replacements = new ArrayList<>(usages.length + declarations.size());
+        for (CssDeclaration renamed : declarations) {
+            PsiElement nameElement = renamed.getPropertyNameElement();
+            if (nameElement != null) {
+                replacements.add(new ConstantRefactoringUtil.Replacement(renamed.getContainingFile(), nameElement.getTextRange(), replacement));
+            }
+        }
+        for (UsageInfo usage : usages) {
+            PsiElement element = usage.getElement();
+            if (element != null) {
+                replacements.add(new ConstantRefactoringUtil.Replacement(element.getContainingFile(), element.getTextRange(), replacement));
+            }
+        }
+        ConstantRefactoringUtil.applyReplacements(myProject, replacements);
+    }
+
+    @Override
+    protected @NotNull String getCommandName() {
+        return "Rename constant -" + oldName + " to -" + newName;
+    }
+}
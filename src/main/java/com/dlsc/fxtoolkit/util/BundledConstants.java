@@ -0,0 +1,63 @@
+package com.dlsc.fxtoolkit.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Provides the constants of stylesheets bundled with the plugin, such as the looked-up colors of
+ * JavaFX's modena.css (`-fx-base`, `-fx-accent`, ...).
+ * <p>
+ * The snapshot is generated at build time by the `generateModenaConstants` task and loaded lazily
+ * on first access. It consists of a format version, the number of entries and the name/value pairs.
+ */
+public final class BundledConstants {
+
+    private static final String MODENA_RESOURCE = "/com/dlsc/fxtoolkit/modena.constants";
+
+    private static final int FORMAT_VERSION = 1;
+
+    private BundledConstants() {
+    }
+
+    /**
+     * Returns the `.root` constants of modena.css, keyed by their name without the leading dash.
+     */
+    public static @NotNull Map<String, String> getModenaConstants() {
+        return ModenaHolder.CONSTANTS;
+    }
+
+    private static Map<String, String> load(String resource) {
+        try (InputStream in = BundledConstants.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                return Map.of();
+            }
+            DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+            if (data.readInt() != FORMAT_VERSION) {
+                return Map.of();
+            }
+            int count = data.readInt();
+            Map<String, String> constants = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String name = data.readUTF();
+                String value = data.readUTF();
+                if (RootConstantScanner.isConstantName("-" + name)) {
+                    constants.put(name, value);
+                }
+            }
+            return Collections.unmodifiableMap(constants);
+        } catch (IOException e) {
+            return Map.of();
+        }
+    }
+
+    private static final class ModenaHolder {
+        static final Map<String, String> CONSTANTS = load(MODENA_RESOURCE);
+    }
+}
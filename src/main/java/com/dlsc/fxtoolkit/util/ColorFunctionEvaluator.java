@@ -0,0 +1,362 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.ConstantTable;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Evaluates JavaFX color expressions to packed ARGB ints: color literals, looked-up constants like
+ * `-fx-base`, and the `derive(<color>, <brightness>)` and `ladder(<color>, <color> <offset>, ...)` functions,
+ * nested to any depth.
+ * <p>
+ * The math follows JavaFX's `com.sun.javafx.util.Utils.deriveColor` and `Utils.ladder`. Looked-up constants
+ * are evaluated through {@link ConstantTable#resolveColor}, which memoizes the color of every constant,
+ * so a chain of derived constants is only evaluated once per snapshot.
+ */
+public final class ColorFunctionEvaluator {
+
+    private ColorFunctionEvaluator() {
+    }
+
+    /**
+     * Returns true if the given value is a `derive(...)` or `ladder(...)` expression.
+     */
+    public static boolean isColorFunction(@NotNull CharSequence value) {
+        int start = skipWhitespace(value, 0, value.length());
+        return startsWithFunction(value, start, "derive") || startsWithFunction(value, start, "ladder");
+    }
+
+    /**
+     * Evaluates the given color expression.
+     *
+     * @return the color, or {@link ColorConverter#INVALID} if the expression is not a color
+     */
+    public static int evaluate(@NotNull CharSequence value, @NotNull ConstantTable table) {
+        return evaluate(value, 0, value.length(), table);
+    }
+
+    /**
+     * Evaluates the color expression in the given range.
+     *
+     * @return the color, or {@link ColorConverter#INVALID} if the range is not a color
+     */
+    public static int evaluate(@NotNull CharSequence text, int start, int end, @NotNull ConstantTable table) {
+        start = skipWhitespace(text, start, end);
+        end = trimEnd(text, start, end);
+        if (start == end) {
+            return ColorConverter.INVALID;
+        }
+
+        if (text.charAt(start) == '-' && isName(text, start + 1, end)) {
+            return table.resolveColor(text.subSequence(start + 1, end).toString());
+        }
+        if (text.charAt(end - 1) == ')') {
+            if (startsWithFunction(text, start, "derive")) {
+                return evaluateDerive(text, findTopLevel(text, start, end, '(') + 1, end - 1, table);
+            }
+            if (startsWithFunction(text, start, "ladder")) {
+                return evaluateLadder(text, findTopLevel(text, start, end, '(') + 1, end - 1, table);
+            }
+        }
+        return ColorConverter.parseArgb(text, start, end);
+    }
+
+    /**
+     * Evaluates `derive(<color>, <brightness>%)`. The range is the content between the parentheses.
+     */
+    private static int evaluateDerive(CharSequence text, int start, int end, ConstantTable table) {
+        int comma = findTopLevel(text, start, end, ',');
+        if (comma < 0 || findTopLevel(text, comma + 1, end, ',') >= 0) {
+            return ColorConverter.INVALID;
+        }
+        int color = evaluate(text, start, comma, table);
+        double brightness = parseFraction(text, comma + 1, end, true);
+        if (color == ColorConverter.INVALID || Double.isNaN(brightness)) {
+            return ColorConverter.INVALID;
+        }
+        return deriveColor(color, brightness);
+    }
+
+    /**
+     * Evaluates `ladder(<color>, <color> <offset>%, ...)` like JavaFX's `Utils.ladder`, which picks the stop
+     * by the HSB brightness of the color. The range is the content between the parentheses.
+     */
+    private static int evaluateLadder(CharSequence text, int start, int end, ConstantTable table) {
+        int comma = findTopLevel(text, start, end, ',');
+        if (comma < 0) {
+            return ColorConverter.INVALID;
+        }
+        int color = evaluate(text, start, comma, table);
+        if (color == ColorConverter.INVALID) {
+            return ColorConverter.INVALID;
+        }
+        double brightness = hsbBrightness(color);
+
+        int previousColor = ColorConverter.INVALID;
+        double previousOffset = 0;
+        int stopStart = comma + 1;
+        while (stopStart < end) {
+            int stopEnd = findTopLevel(text, stopStart, end, ',');
+            if (stopEnd < 0) {
+                stopEnd = end;
+            }
+
+            // a stop is a color followed by its offset
+            int offsetEnd = trimEnd(text, stopStart, stopEnd);
+            int offsetStart = offsetEnd;
+            while (offsetStart > stopStart && !Character.isWhitespace(text.charAt(offsetStart - 1))) {
+                offsetStart--;
+            }
+            double offset = parseFraction(text, offsetStart, offsetEnd, false);
+            if (offsetStart == stopStart || Double.isNaN(offset)) {
+                return ColorConverter.INVALID;
+            }
+            offset = Math.max(0, Math.min(1, offset));
+            int stopColor = evaluate(text, stopStart, offsetStart, table);
+            if (stopColor == ColorConverter.INVALID) {
+                return ColorConverter.INVALID;
+            }
+
+            if (brightness <= offset) {
+                if (previousColor == ColorConverter.INVALID) {
+                    return stopColor;
+                }
+                return interpolateLinear((brightness - previousOffset) / (offset - previousOffset), previousColor, stopColor);
+            }
+            previousColor = stopColor;
+            previousOffset = offset;
+            stopStart = stopEnd + 1;
+        }
+        return previousColor;
+    }
+
+    /**
+     * Brightens or darkens the given color like JavaFX's `Utils.deriveColor`.
+     *
+     * @param brightness the brightness change, from -1 (black) to 1 (white)
+     */
+    static int deriveColor(int argb, double brightness) {
+        double baseBrightness = calculateBrightness(argb);
+        double calcBrightness = brightness;
+        // fine adjustments to colors in ranges of brightness to adjust the contrast for them
+        if (brightness > 0) {
+            if (baseBrightness > 0.85) {
+                calcBrightness = calcBrightness * 1.6;
+            } else if (baseBrightness > 0.6) {
+                // no change
+            } else if (baseBrightness > 0.5) {
+                calcBrightness = calcBrightness * 0.9;
+            } else if (baseBrightness > 0.4) {
+                calcBrightness = calcBrightness * 0.8;
+            } else if (baseBrightness > 0.3) {
+                calcBrightness = calcBrightness * 0.7;
+            } else {
+                calcBrightness = calcBrightness * 0.6;
+            }
+        } else if (baseBrightness < 0.2) {
+            calcBrightness = calcBrightness * 0.6;
+        }
+        calcBrightness = clamp(calcBrightness, -1, 1);
+
+        double r = red(argb);
+        double g = green(argb);
+        double b = blue(argb);
+        double max = Math.max(r, Math.max(g, b));
+        double min = Math.min(r, Math.min(g, b));
+        double saturation = max != 0 ? (max - min) / max : 0;
+        double value = max;
+        double hue = 0;
+        if (saturation != 0) {
+            double redc = (max - r) / (max - min);
+            double greenc = (max - g) / (max - min);
+            double bluec = (max - b) / (max - min);
+            if (r == max) {
+                hue = bluec - greenc;
+            } else if (g == max) {
+                hue = 2.0 + redc - bluec;
+            } else {
+                hue = 4.0 + greenc - redc;
+            }
+            hue = hue / 6.0;
+            if (hue < 0) {
+                hue = hue + 1.0;
+            }
+        }
+
+        if (calcBrightness > 0) {
+            saturation *= 1 - calcBrightness;
+            value += (1 - value) * calcBrightness;
+        } else {
+            value *= calcBrightness + 1;
+        }
+        saturation = clamp(saturation, 0, 1);
+        value = clamp(value, 0, 1);
+
+        // JavaFX truncates the hue to whole degrees
+        return hsbToArgb((int) (hue * 360) / 360.0, saturation, value, argb >>> 24);
+    }
+
+    /**
+     * Interpolates between two colors in linear RGB space like JavaFX's `Utils.interpolateLinear`.
+     */
+    static int interpolateLinear(double position, int from, int to) {
+        double r = interpolateComponent(position, red(from), red(to));
+        double g = interpolateComponent(position, green(from), green(to));
+        double b = interpolateComponent(position, blue(from), blue(to));
+        double a = (from >>> 24) + ((to >>> 24) - (from >>> 24)) * position;
+        return pack(r, g, b, (int) Math.round(clamp(a, 0, 255)));
+    }
+
+    private static double interpolateComponent(double position, double from, double to) {
+        double fromLinear = toLinear(from);
+        return toSrgb(fromLinear + (toLinear(to) - fromLinear) * position);
+    }
+
+    private static double toLinear(double component) {
+        return component <= 0.04045 ? component / 12.92 : Math.pow((component + 0.055) / 1.055, 2.4);
+    }
+
+    private static double toSrgb(double component) {
+        return component <= 0.0031308 ? component * 12.92 : 1.055 * Math.pow(component, 1.0 / 2.4) - 0.055;
+    }
+
+    /**
+     * Returns the HSB brightness of the given color, its largest component, like JavaFX's `Color.getBrightness`.
+     */
+    static double hsbBrightness(int argb) {
+        return Math.max(red(argb), Math.max(green(argb), blue(argb)));
+    }
+
+    /**
+     * Returns the perceived brightness of the given color like JavaFX's `Utils.calculateBrightness`.
+     */
+    static double calculateBrightness(int argb) {
+        return 0.3 * red(argb) + 0.59 * green(argb) + 0.11 * blue(argb);
+    }
+
+    /**
+     * Converts a color from HSB like JavaFX's `Utils.HSBtoRGB`.
+     *
+     * @param hue the hue as a fraction of a full turn
+     */
+    private static int hsbToArgb(double hue, double saturation, double brightness, int alpha) {
+        double r;
+        double g;
+        double b;
+        if (saturation == 0) {
+            r = g = b = brightness;
+        } else {
+            double h = (hue - Math.floor(hue)) * 6.0;
+            double f = h - Math.floor(h);
+            double p = brightness * (1.0 - saturation);
+            double q = brightness * (1.0 - saturation * f);
+            double t = brightness * (1.0 - (saturation * (1.0 - f)));
+            switch ((int) h) {
+                case 0 -> { r = brightness; g = t; b = p; }
+                case 1 -> { r = q; g = brightness; b = p; }
+                case 2 -> { r = p; g = brightness; b = t; }
+                case 3 -> { r = p; g = q; b = brightness; }
+                case 4 -> { r = t; g = p; b = brightness; }
+                default -> { r = brightness; g = p; b = q; }
+            }
+        }
+        return pack(r, g, b, alpha);
+    }
+
+    private static int pack(double r, double g, double b, int alpha) {
+        int argb = (alpha << 24) | (toByte(r) << 16) | (toByte(g) << 8) | toByte(b);
+        // never report a computed color as the sentinel
+        return argb == ColorConverter.INVALID ? 0 : argb;
+    }
+
+    private static int toByte(double component) {
+        return (int) Math.round(clamp(component, 0, 1) * 255);
+    }
+
+    private static double red(int argb) {
+        return ((argb >> 16) & 0xFF) / 255.0;
+    }
+
+    private static double green(int argb) {
+        return ((argb >> 8) & 0xFF) / 255.0;
+    }
+
+    private static double blue(int argb) {
+        return (argb & 0xFF) / 255.0;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return value < min ? min : Math.min(value, max);
+    }
+
+    /**
+     * Parses a percentage into a fraction.
+     *
+     * @param bareIsPercentage true if a number without a percent sign is a percentage as well, false if it is a fraction
+     * @return the fraction, or NaN if the range is not a number
+     */
+    private static double parseFraction(CharSequence text, int start, int end, boolean bareIsPercentage) {
+        start = skipWhitespace(text, start, end);
+        end = trimEnd(text, start, end);
+        boolean percent = end > start && text.charAt(end - 1) == '%';
+        if (percent) {
+            end--;
+        }
+        double value = ColorConverter.parseNumber(text, start, end, false);
+        return percent || bareIsPercentage ? value / 100 : value;
+    }
+
+    /**
+     * Returns the position of the first occurrence of the given character outside of parentheses, or -1.
+     */
+    private static int findTopLevel(CharSequence text, int start, int end, char c) {
+        int depth = 0;
+        for (int i = start; i < end; i++) {
+            char ch = text.charAt(i);
+            if (ch == c && depth == 0) {
+                return i;
+            }
+            if (ch == '(') {
+                depth++;
+            } else if (ch == ')') {
+                depth--;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWithFunction(CharSequence text, int start, String name) {
+        int i = start + name.length();
+        if (i > text.length()) {
+            return false;
+        }
+        for (int j = 0; j < name.length(); j++) {
+            if (Character.toLowerCase(text.charAt(start + j)) != name.charAt(j)) {
+                return false;
+            }
+        }
+        i = skipWhitespace(text, i, text.length());
+        return i < text.length() && text.charAt(i) == '(';
+    }
+
+    private static boolean isName(CharSequence text, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!CssTextScanner.isNameChar(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        return start;
+    }
+
+    private static int trimEnd(CharSequence text, int start, int end) {
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+        return end;
+    }
+}
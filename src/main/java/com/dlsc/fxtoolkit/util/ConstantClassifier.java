@@ -0,0 +1,121 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.ConstantKind;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies resolved constant values and tells which kinds of values a property accepts.
+ */
+public final class ConstantClassifier {
+
+    private static final Pattern SVG_PATH_PATTERN = Pattern.compile("(?i)^\\s*[mlczaqhvstf].*\\d.*");
+
+    private static final Pattern SIZE_PATTERN = Pattern.compile(
+            "(?i)(-?(\\d+\\.?\\d*|\\.\\d+)(px|em|ex|%|pt|pc|mm|cm|in)?)([\\s,]+-?(\\d+\\.?\\d*|\\.\\d+)(px|em|ex|%|pt|pc|mm|cm|in)?)*");
+
+    private static final Set<ConstantKind> PAINTS = EnumSet.of(ConstantKind.COLOR, ConstantKind.GRADIENT, ConstantKind.PAINT_LIST);
+
+    private static final Set<ConstantKind> PATHS = EnumSet.of(ConstantKind.SVG_PATH);
+
+    private static final Set<ConstantKind> SIZES = EnumSet.of(ConstantKind.SIZE);
+
+    private ConstantClassifier() {
+    }
+
+    /**
+     * Returns the kind of the given resolved value. Surrounding quotes are ignored.
+     */
+    public static @NotNull ConstantKind classify(@NotNull String resolvedValue) {
+        String value = resolvedValue.trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).trim();
+        }
+        if (value.isEmpty()) {
+            return ConstantKind.OTHER;
+        }
+        if (ColorConverter.isValidColor(value) || ColorFunctionEvaluator.isColorFunction(value)) {
+            return ConstantKind.COLOR;
+        }
+        if (isGradient(value)) {
+            return ConstantKind.GRADIENT;
+        }
+        if (isPaintList(value)) {
+            return ConstantKind.PAINT_LIST;
+        }
+        if (SIZE_PATTERN.matcher(value).matches()) {
+            return ConstantKind.SIZE;
+        }
+        if (SVG_PATH_PATTERN.matcher(value).matches()) {
+            return ConstantKind.SVG_PATH;
+        }
+        return ConstantKind.OTHER;
+    }
+
+    private static boolean isGradient(@NotNull String value) {
+        return value.startsWith("linear-gradient") || value.startsWith("radial-gradient");
+    }
+
+    /**
+     * Returns true if the given value is a list of at least two paints, separated by commas or whitespace,
+     * e.g. the layers of `-fx-background-color` or the four sides of `-fx-border-color`.
+     */
+    private static boolean isPaintList(@NotNull String value) {
+        int paints = 0;
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            char c = i < value.length() ? value.charAt(i) : ',';
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && (c == ',' || Character.isWhitespace(c))) {
+                if (i > start) {
+                    if (!isPaint(value.substring(start, i))) {
+                        return false;
+                    }
+                    paints++;
+                }
+                start = i + 1;
+            }
+        }
+        return paints > 1;
+    }
+
+    private static boolean isPaint(@NotNull String value) {
+        // a looked-up color, but not a negative number
+        if (value.length() > 1 && value.charAt(0) == '-' && Character.isLetter(value.charAt(1))) {
+            return true;
+        }
+        return ColorConverter.isValidColor(value) || ColorFunctionEvaluator.isColorFunction(value) || isGradient(value);
+    }
+
+    /**
+     * Returns the kinds of values the given property accepts, or null if the property is unknown
+     * and any constant may be used, e.g. in the declaration of another constant.
+     */
+    public static @Nullable Set<ConstantKind> kindsForProperty(@NotNull String propertyName) {
+        String name = propertyName.trim().toLowerCase(Locale.ROOT);
+        if (!name.startsWith("-fx-")) {
+            return null;
+        }
+        if (name.equals("-fx-shape")) {
+            return PATHS;
+        }
+        if (name.endsWith("-color") || name.endsWith("-fill") || name.equals("-fx-stroke") || name.equals("-fx-background")) {
+            return PAINTS;
+        }
+        if (name.endsWith("-width") || name.endsWith("-height") || name.endsWith("-size") || name.endsWith("-radius")
+                || name.endsWith("-insets") || name.endsWith("-padding") || name.endsWith("-spacing")
+                || name.endsWith("-gap") || name.endsWith("-indent") || name.endsWith("-length")) {
+            return SIZES;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,172 @@
+package com.dlsc.fxtoolkit.util;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A single-pass tokenizer that finds every reference to a constant, like `-primary-500`,
+ * in the declaration values of a stylesheet, without building a PSI tree.
+ * <p>
+ * Property names, selectors, comments, strings and the contents of `url(...)` are never reported.
+ * Negative numbers like `-2px` are not references.
+ */
+public final class ConstantUsageScanner extends CssTextScanner {
+
+    private final Map<String, IntArrayList> result = new HashMap<>();
+
+    private ConstantUsageScanner(CharSequence text) {
+        super(text);
+    }
+
+    /**
+     * Returns the offsets of the constant references in the given stylesheet text, keyed by the
+     * referenced name without the leading dash. Each offset points to the dash of a reference.
+     */
+    public static @NotNull Map<String, int[]> scan(@NotNull CharSequence text) {
+        ConstantUsageScanner scanner = new ConstantUsageScanner(text);
+        scanner.scanStatements();
+        if (scanner.result.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, int[]> usages = new HashMap<>(scanner.result.size() * 2);
+        scanner.result.forEach((name, offsets) -> usages.put(name, offsets.toIntArray()));
+        return usages;
+    }
+
+    /**
+     * Returns the names of the constants referenced in a single declaration value, like
+     * `derive(-fx-base, -20%)`, without the leading dash.
+     */
+    public static @NotNull Set<String> referencedNames(@NotNull CharSequence value) {
+        ConstantUsageScanner scanner = new ConstantUsageScanner(value);
+        scanner.scanValue(0, value.length());
+        return scanner.result.isEmpty() ? Set.of() : Set.copyOf(scanner.result.keySet());
+    }
+
+    private void scanStatements() {
+        int depth = 0;
+        int i = 0;
+        while (true) {
+            i = skipWhitespaceAndComments(i);
+            if (i >= length) return;
+            char c = text.charAt(i);
+            if (c == '}') {
+                depth = Math.max(0, depth - 1);
+                i++;
+                continue;
+            }
+            if (c == ';') {
+                i++;
+                continue;
+            }
+
+            int end = findStatementEnd(i);
+            if (end < length && text.charAt(end) == '{') {
+                // a selector or at-rule header, declarations follow inside the block
+                depth++;
+                i = end + 1;
+            } else {
+                if (depth > 0) {
+                    scanDeclaration(i, end);
+                }
+                i = end;
+            }
+        }
+    }
+
+    /**
+     * Returns the position of the `{`, `;` or `}` that terminates the statement starting at the given position.
+     */
+    private int findStatementEnd(int start) {
+        int depth = 0;
+        int i = start;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '/' && i + 1 < length && text.charAt(i + 1) == '*') {
+                i = skipComment(i);
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                i = skipString(i);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth = Math.max(0, depth - 1);
+            } else if ((c == '{' || c == ';' || c == '}') && depth == 0) {
+                return i;
+            }
+            i++;
+        }
+        return length;
+    }
+
+    private void scanDeclaration(int start, int end) {
+        int i = start;
+        while (i < end && text.charAt(i) != ':') {
+            if (text.charAt(i) == '/' && i + 1 < end && text.charAt(i + 1) == '*') {
+                i = skipComment(i);
+            } else {
+                i++;
+            }
+        }
+        scanValue(i + 1, end);
+    }
+
+    private void scanValue(int start, int end) {
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '/' && i + 1 < end && text.charAt(i + 1) == '*') {
+                i = skipComment(i);
+            } else if (c == '"' || c == '\'') {
+                i = skipString(i);
+            } else if (c == '-' && i + 1 < end && isNameStart(text.charAt(i + 1))) {
+                int nameEnd = skipName(i + 1, end);
+                result.computeIfAbsent(text.subSequence(i + 1, nameEnd).toString(), k -> new IntArrayList(2)).add(i);
+                i = nameEnd;
+            } else if (isNameChar(c)) {
+                int nameEnd = skipName(i, end);
+                if (nameEnd < end && text.charAt(nameEnd) == '('
+                        && "url".equalsIgnoreCase(text.subSequence(i, nameEnd).toString())) {
+                    nameEnd = skipUrl(nameEnd + 1, end);
+                }
+                i = nameEnd;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private int skipName(int start, int end) {
+        int i = start;
+        while (i < end && isNameChar(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private int skipUrl(int start, int end) {
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipString(i);
+            } else if (c == ')') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return end;
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '-';
+    }
+}
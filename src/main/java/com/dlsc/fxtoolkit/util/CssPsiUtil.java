@@ -0,0 +1,32 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.intellij.psi.css.CssDeclaration;
+import com.intellij.psi.css.CssRuleset;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * PSI helpers for constants declared in `.root` blocks.
+ */
+public final class CssPsiUtil {
+
+    private CssPsiUtil() {
+    }
+
+    /**
+     * Returns the name of the constant declared by the given declaration without the leading dash,
+     * or null if the declaration is not a constant inside a `.root` block.
+     */
+    public static @Nullable String getDeclaredConstantName(@NotNull CssDeclaration declaration) {
+        String propertyName = declaration.getPropertyName().trim();
+        if (!RootConstantScanner.isConstantName(propertyName)) {
+            return null;
+        }
+        CssRuleset ruleset = PsiTreeUtil.getParentOfType(declaration, CssRuleset.class);
+        if (ruleset == null || !RootConstantScanner.containsRootSelector(ruleset.getSelectorList().getText())) {
+            return null;
+        }
+        return propertyName.substring(1);
+    }
+}
@@ -0,0 +1,109 @@
+package com.dlsc.fxtoolkit.util;
+
+/**
+ * Base class of the tokenizers that read stylesheet text directly, without building a PSI tree.
+ * Provides the shared primitives to skip comments, strings, blocks and whitespace.
+ */
+abstract class CssTextScanner {
+
+    final CharSequence text;
+    final int length;
+
+    CssTextScanner(CharSequence text) {
+        this.text = text;
+        this.length = text.length();
+    }
+
+    /**
+     * Returns the position of the `;` or `}` that terminates the value starting at the given position.
+     */
+    final int findValueEnd(int start) {
+        int depth = 0;
+        int i = start;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '/' && i + 1 < length && text.charAt(i + 1) == '*') {
+                i = skipComment(i);
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                i = skipString(i);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth = Math.max(0, depth - 1);
+            } else if ((c == ';' || c == '}') && depth == 0) {
+                return i;
+            }
+            i++;
+        }
+        return length;
+    }
+
+    final int skipBlock(int start) {
+        int depth = 1;
+        int i = start;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '/' && i + 1 < length && text.charAt(i + 1) == '*') {
+                i = skipComment(i);
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                i = skipString(i);
+                continue;
+            }
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return length;
+    }
+
+    final int skipComment(int start) {
+        for (int i = start + 2; i + 1 < length; i++) {
+            if (text.charAt(i) == '*' && text.charAt(i + 1) == '/') {
+                return i + 2;
+            }
+        }
+        return length;
+    }
+
+    final int skipString(int start) {
+        char quote = text.charAt(start);
+        for (int i = start + 1; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote || c == '\n') {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    final int skipWhitespace(int start) {
+        int i = start;
+        while (i < length && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    final int skipWhitespaceAndComments(int start) {
+        int i = skipWhitespace(start);
+        while (i + 1 < length && text.charAt(i) == '/' && text.charAt(i + 1) == '*') {
+            i = skipWhitespace(skipComment(i));
+        }
+        return i;
+    }
+
+    static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+    }
+}
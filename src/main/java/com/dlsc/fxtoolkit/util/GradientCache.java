@@ -0,0 +1,128 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.CacheStats;
+import com.dlsc.fxtoolkit.model.ConstantTable;
+import com.dlsc.fxtoolkit.model.CycleMethod;
+import com.dlsc.fxtoolkit.model.GradientInfo;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.containers.Interner;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Color;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded LRU cache of the parsed gradients of a project, shared by the icons, the gutter and the previews.
+ * <p>
+ * Gradients are keyed by their normalized value and the version of the constant table they were resolved
+ * against. A gradient without looked-up colors does not depend on the constants, so it is keyed without
+ * a version and survives the publication of a new snapshot. Parsed gradients are interned, so equal
+ * gradients written differently share one instance and with it one AWT paint.
+ */
+@Service(Service.Level.PROJECT)
+public final class GradientCache {
+
+    private static final int MAX_SIZE = 512;
+
+    /**
+     * The version of the gradients that do not refer to any constant.
+     */
+    private static final long CONSTANT_FREE = -1;
+
+    /**
+     * Marks a value that is not a valid gradient.
+     */
+    private static final GradientInfo NO_GRADIENT = GradientInfo.linear(0, 0, 0, 1, true, CycleMethod.NO_CYCLE,
+            new Color[]{Color.BLACK, Color.BLACK}, new float[]{0, 1});
+
+    /**
+     * Guarded by this cache's monitor.
+     */
+    private final LinkedHashMap<Key, GradientInfo> gradients = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, GradientInfo> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    /**
+     * Guarded by this cache's monitor.
+     */
+    private final Interner<GradientInfo> interner = Interner.createWeakInterner();
+
+    private long constantsVersion = CONSTANT_FREE;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public static GradientCache getInstance(@NotNull Project project) {
+        return project.getService(GradientCache.class);
+    }
+
+    /**
+     * Returns the parsed gradient of the given value, resolved against the given snapshot of the constants.
+     * Entries of older snapshots are dropped once a newer one is seen; a gradient parsed against an older
+     * snapshot than the latest one seen is returned but not cached.
+     *
+     * @return the gradient, or null if the value is not a valid gradient
+     */
+    public @Nullable GradientInfo get(@NotNull String value, @NotNull ConstantTable table) {
+        String normalized = IconCache.normalize(value);
+        long version = table.getVersion();
+        Key constantFreeKey = new Key(normalized, CONSTANT_FREE);
+        Key versionedKey = new Key(normalized, version);
+        synchronized (this) {
+            if (version > constantsVersion) {
+                dropVersioned();
+                constantsVersion = version;
+            }
+            GradientInfo cached = gradients.get(constantFreeKey);
+            if (cached == null) {
+                cached = gradients.get(versionedKey);
+            }
+            if (cached != null) {
+                hits.increment();
+                return cached == NO_GRADIENT ? null : cached;
+            }
+        }
+        misses.increment();
+
+        // parsed outside the lock, two threads may parse the same value but only one instance is kept
+        GradientInfo parsed = GradientParser.parse(normalized, table);
+        Key key = ConstantUsageScanner.referencedNames(normalized).isEmpty() ? constantFreeKey : versionedKey;
+        synchronized (this) {
+            GradientInfo gradient = parsed != null ? interner.intern(parsed) : NO_GRADIENT;
+            if (key.version() == CONSTANT_FREE || version == constantsVersion) {
+                GradientInfo previous = gradients.putIfAbsent(key, gradient);
+                if (previous != null) {
+                    gradient = previous;
+                }
+            }
+            return gradient == NO_GRADIENT ? null : gradient;
+        }
+    }
+
+    /**
+     * Returns the hit and miss counts of the cache.
+     */
+    public @NotNull CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum());
+    }
+
+    public synchronized void clear() {
+        gradients.clear();
+        interner.clear();
+    }
+
+    private void dropVersioned() {
+        gradients.keySet().removeIf(key -> key.version() != CONSTANT_FREE);
+    }
+
+    private record Key(String value, long version) {
+    }
+}
@@ -0,0 +1,540 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.ConstantTable;
+import com.dlsc.fxtoolkit.model.CycleMethod;
+import com.dlsc.fxtoolkit.model.GradientInfo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * A hand-written, single-pass tokenizer and parser for the JavaFX gradient syntax:
+ * <pre>
+ * linear-gradient( [ [from &lt;point&gt; to &lt;point&gt;] | [ to &lt;side-or-corner&gt; ], ]? [ [ repeat | reflect ], ]?
+ *                  &lt;color-stop&gt;[, &lt;color-stop&gt;]+ )
+ * radial-gradient( [ focus-angle &lt;angle&gt;, ]? [ focus-distance &lt;percentage&gt;, ]? [ center &lt;point&gt;, ]?
+ *                  radius [ &lt;length&gt; | &lt;percentage&gt; ], [ [ repeat | reflect ], ]? &lt;color-stop&gt;[, &lt;color-stop&gt;]+ )
+ * </pre>
+ * Stop colors may be any color expression, including looked-up constants and `derive(...)`/`ladder(...)`.
+ * The header keywords may also share a segment, e.g. `to right repeat`. A stop whose color cannot be
+ * evaluated is painted black; any other syntax error rejects the whole gradient.
+ */
+final class GradientParser extends CssTextScanner {
+
+    private static final int NONE = 0;
+    private static final int PERCENT = 1;
+    private static final int LENGTH = 2;
+    private static final int ANGLE = 3;
+
+    private final ConstantTable table;
+
+    /**
+     * The position of the closing parenthesis.
+     */
+    private int end;
+
+    // the value and unit kind of the last number read by readNumber
+    private double number;
+    private int unit;
+
+    /**
+     * The x coordinate of the last point read by readPoint; the y coordinate is in {@link #number}.
+     */
+    private double number0;
+
+    /**
+     * PERCENT if the geometry is proportional, LENGTH if it is in pixels, NONE while no coordinate was read.
+     */
+    private int geometryUnit = NONE;
+
+    private CycleMethod cycleMethod = CycleMethod.NO_CYCLE;
+
+    // linear geometry, JavaFX defaults to `to bottom`
+    private float startX = 0f, startY = 0f, endX = 0f, endY = 1f;
+
+    // radial geometry
+    private float focusAngle = 0f, focusDistance = 0f, radius = Float.NaN;
+    private float centerX = Float.NaN, centerY = Float.NaN;
+
+    // the parsed stops, offsets are NaN where not given
+    private Color[] stopColors = new Color[4];
+    private float[] stopOffsets = new float[4];
+    private int stopCount;
+
+    private GradientParser(CharSequence text, ConstantTable table) {
+        super(text);
+        this.table = table;
+    }
+
+    /**
+     * Parses the given `linear-gradient(...)` or `radial-gradient(...)` value.
+     *
+     * @param table the constants to evaluate looked-up stop colors against
+     * @return the gradient, or null if the value is not a valid gradient
+     */
+    static @Nullable GradientInfo parse(@NotNull CharSequence text, @NotNull ConstantTable table) {
+        return new GradientParser(text, table).parse();
+    }
+
+    private @Nullable GradientInfo parse() {
+        int start = skipWhitespace(0);
+        int close = length;
+        while (close > start && Character.isWhitespace(text.charAt(close - 1))) {
+            close--;
+        }
+        if (close == start || text.charAt(close - 1) != ')') {
+            return null;
+        }
+        end = close - 1;
+
+        int nameEnd = skipWord(start, end);
+        boolean radial;
+        if (wordEquals(start, nameEnd, "linear-gradient")) {
+            radial = false;
+        } else if (wordEquals(start, nameEnd, "radial-gradient")) {
+            radial = true;
+        } else {
+            return null;
+        }
+        int pos = skipWhitespace(nameEnd);
+        if (pos >= end || text.charAt(pos) != '(') {
+            return null;
+        }
+        pos++;
+
+        boolean inHeader = true;
+        while (true) {
+            int segmentEnd = findSegmentEnd(pos);
+            int header = inHeader ? parseHeader(pos, segmentEnd, radial) : 0;
+            if (header < 0) {
+                return null;
+            }
+            if (header == 0) {
+                inHeader = false;
+                if (!parseStop(pos, segmentEnd, radial)) {
+                    return null;
+                }
+            }
+            if (segmentEnd >= end) {
+                break;
+            }
+            pos = segmentEnd + 1;
+        }
+        if (stopCount == 0) {
+            return null;
+        }
+
+        float[] fractions = normalizeFractions();
+        Color[] colors = Arrays.copyOf(stopColors, stopCount);
+        if (stopCount == 1) {
+            // a single stop paints a solid color, AWT needs two
+            colors = new Color[]{colors[0], colors[0]};
+            fractions = new float[]{0f, 1f};
+        }
+        boolean proportional = geometryUnit != LENGTH;
+
+        if (!radial) {
+            return GradientInfo.linear(startX, startY, endX, endY, proportional, cycleMethod, colors, fractions);
+        }
+        float defaultCenter = proportional ? 0.5f : 0f;
+        return GradientInfo.radial(focusAngle, focusDistance,
+                Float.isNaN(centerX) ? defaultCenter : centerX, Float.isNaN(centerY) ? defaultCenter : centerY,
+                Float.isNaN(radius) ? 0.5f : radius, proportional, cycleMethod, colors, fractions);
+    }
+
+    /**
+     * Parses a segment of header keywords.
+     *
+     * @return 1 if the segment is a header, 0 if it is the first color stop, -1 on a syntax error
+     */
+    private int parseHeader(int start, int segmentEnd, boolean radial) {
+        int i = skipWhitespace(start);
+        int wordEnd = skipWord(i, segmentEnd);
+        if (!isHeaderKeyword(i, wordEnd, radial)) {
+            return 0;
+        }
+
+        while (i < segmentEnd) {
+            wordEnd = skipWord(i, segmentEnd);
+            if (wordEquals(i, wordEnd, "repeat")) {
+                cycleMethod = CycleMethod.REPEAT;
+                i = wordEnd;
+            } else if (wordEquals(i, wordEnd, "reflect")) {
+                cycleMethod = CycleMethod.REFLECT;
+                i = wordEnd;
+            } else if (!radial && wordEquals(i, wordEnd, "from")) {
+                i = readPoint(wordEnd, segmentEnd);
+                if (i < 0) return -1;
+                startX = (float) number0;
+                startY = (float) number;
+                int toStart = skipWhitespace(i);
+                int toEnd = skipWord(toStart, segmentEnd);
+                if (!wordEquals(toStart, toEnd, "to")) return -1;
+                i = readPoint(toEnd, segmentEnd);
+                if (i < 0) return -1;
+                endX = (float) number0;
+                endY = (float) number;
+            } else if (!radial && wordEquals(i, wordEnd, "to")) {
+                i = readSideOrCorner(wordEnd, segmentEnd);
+                if (i < 0) return -1;
+            } else if (radial && wordEquals(i, wordEnd, "focus-angle")) {
+                i = readNumber(wordEnd, segmentEnd);
+                if (i < 0 || (unit != ANGLE && unit != NONE)) return -1;
+                focusAngle = (float) number;
+            } else if (radial && wordEquals(i, wordEnd, "focus-distance")) {
+                i = readNumber(wordEnd, segmentEnd);
+                if (i < 0 || (unit != PERCENT && unit != NONE)) return -1;
+                focusDistance = (float) (unit == PERCENT ? number / 100 : number);
+            } else if (radial && wordEquals(i, wordEnd, "center")) {
+                i = readPoint(wordEnd, segmentEnd);
+                if (i < 0) return -1;
+                centerX = (float) number0;
+                centerY = (float) number;
+            } else if (radial && wordEquals(i, wordEnd, "radius")) {
+                i = readNumber(wordEnd, segmentEnd);
+                if (i < 0 || !acceptGeometryUnit()) return -1;
+                radius = (float) geometryValue();
+                if (radius <= 0) return -1;
+            } else {
+                return -1;
+            }
+            i = skipWhitespace(i);
+        }
+        return 1;
+    }
+
+    private boolean isHeaderKeyword(int start, int wordEnd, boolean radial) {
+        if (wordEquals(start, wordEnd, "repeat") || wordEquals(start, wordEnd, "reflect")) {
+            return true;
+        }
+        if (radial) {
+            return wordEquals(start, wordEnd, "focus-angle") || wordEquals(start, wordEnd, "focus-distance")
+                    || wordEquals(start, wordEnd, "center") || wordEquals(start, wordEnd, "radius");
+        }
+        return wordEquals(start, wordEnd, "from") || wordEquals(start, wordEnd, "to");
+    }
+
+    /**
+     * Reads one or two of `left`, `right`, `top` and `bottom`, and sets the direction like JavaFX does.
+     */
+    private int readSideOrCorner(int start, int segmentEnd) {
+        boolean left = false, right = false, top = false, bottom = false;
+        int i = skipWhitespace(start);
+        for (int sides = 0; sides < 2 && i < segmentEnd; sides++) {
+            int wordEnd = skipWord(i, segmentEnd);
+            if (wordEquals(i, wordEnd, "left") && !left && !right) {
+                left = true;
+            } else if (wordEquals(i, wordEnd, "right") && !left && !right) {
+                right = true;
+            } else if (wordEquals(i, wordEnd, "top") && !top && !bottom) {
+                top = true;
+            } else if (wordEquals(i, wordEnd, "bottom") && !top && !bottom) {
+                bottom = true;
+            } else {
+                break;
+            }
+            i = skipWhitespace(wordEnd);
+        }
+        if (!left && !right && !top && !bottom) {
+            return -1;
+        }
+        if (geometryUnit == LENGTH) {
+            return -1;
+        }
+        geometryUnit = PERCENT;
+        startX = left ? 1f : 0f;
+        endX = right ? 1f : 0f;
+        startY = top ? 1f : 0f;
+        endY = bottom ? 1f : 0f;
+        return i;
+    }
+
+    private int readPoint(int start, int segmentEnd) {
+        int i = readNumber(start, segmentEnd);
+        if (i < 0 || !acceptGeometryUnit()) return -1;
+        double x = geometryValue();
+        i = readNumber(i, segmentEnd);
+        if (i < 0 || !acceptGeometryUnit()) return -1;
+        number0 = x;
+        number = geometryValue();
+        return i;
+    }
+
+    /**
+     * Checks that the unit of the last number matches the other coordinates, which are either all
+     * proportional or all in pixels.
+     */
+    private boolean acceptGeometryUnit() {
+        int kind = unit == NONE ? LENGTH : unit;
+        if (kind != PERCENT && kind != LENGTH) {
+            return false;
+        }
+        if (geometryUnit == NONE) {
+            geometryUnit = kind;
+        }
+        return geometryUnit == kind;
+    }
+
+    private double geometryValue() {
+        return unit == PERCENT ? number / 100 : number;
+    }
+
+    /**
+     * Parses a color stop: a color expression, optionally followed by a percentage or length.
+     */
+    private boolean parseStop(int start, int segmentEnd, boolean radial) {
+        int colorStart = skipWhitespace(start);
+        int colorEnd = segmentEnd;
+        while (colorEnd > colorStart && Character.isWhitespace(text.charAt(colorEnd - 1))) {
+            colorEnd--;
+        }
+        if (colorStart == colorEnd) {
+            return false;
+        }
+
+        // the offset is the last token outside of parentheses, if it is a number
+        float offset = Float.NaN;
+        int offsetStart = findLastTopLevelToken(colorStart, colorEnd);
+        if (offsetStart > colorStart && isNumberStart(offsetStart, colorEnd)) {
+            if (readNumber(offsetStart, colorEnd) != colorEnd) {
+                return false;
+            }
+            if (unit == PERCENT) {
+                offset = (float) (number / 100);
+            } else if (unit == LENGTH || unit == NONE) {
+                // a length is relative to the gradient line, which needs pixel geometry
+                double lineLength = radial ? radius : Math.hypot(endX - startX, endY - startY);
+                if (geometryUnit == LENGTH && lineLength > 0) {
+                    offset = (float) (number / lineLength);
+                }
+            } else {
+                return false;
+            }
+            colorEnd = offsetStart;
+        }
+
+        int argb = ColorFunctionEvaluator.evaluate(text, colorStart, colorEnd, table);
+        Color color = new Color(argb != ColorConverter.INVALID ? argb : 0xFF000000, true);
+
+        if (stopCount == stopColors.length) {
+            stopColors = Arrays.copyOf(stopColors, stopCount * 2);
+            stopOffsets = Arrays.copyOf(stopOffsets, stopCount * 2);
+        }
+        stopColors[stopCount] = color;
+        stopOffsets[stopCount] = Float.isNaN(offset) ? Float.NaN : Math.max(0f, Math.min(1f, offset));
+        stopCount++;
+        return true;
+    }
+
+    /**
+     * Fills in the missing offsets, sorts the stops by offset and makes the offsets strictly increasing.
+     */
+    private float[] normalizeFractions() {
+        float[] fractions = Arrays.copyOf(stopOffsets, stopCount);
+        if (Float.isNaN(fractions[0])) {
+            fractions[0] = 0f;
+        }
+        if (Float.isNaN(fractions[stopCount - 1])) {
+            fractions[stopCount - 1] = 1f;
+        }
+
+        // stops without an offset are spread evenly between their neighbours
+        int lastDefined = 0;
+        for (int i = 1; i < stopCount; i++) {
+            if (Float.isNaN(fractions[i])) continue;
+            int gap = i - lastDefined;
+            for (int j = 1; j < gap; j++) {
+                fractions[lastDefined + j] = fractions[lastDefined] + (fractions[i] - fractions[lastDefined]) * j / gap;
+            }
+            lastDefined = i;
+        }
+
+        // stable insertion sort, the stop lists are short
+        for (int i = 1; i < stopCount; i++) {
+            float fraction = fractions[i];
+            Color color = stopColors[i];
+            int j = i - 1;
+            for (; j >= 0 && fractions[j] > fraction; j--) {
+                fractions[j + 1] = fractions[j];
+                stopColors[j + 1] = stopColors[j];
+            }
+            fractions[j + 1] = fraction;
+            stopColors[j + 1] = color;
+        }
+
+        for (int i = 1; i < stopCount; i++) {
+            if (fractions[i] <= fractions[i - 1]) {
+                fractions[i] = Math.nextUp(fractions[i - 1]);
+            }
+        }
+        if (fractions[stopCount - 1] > 1f) {
+            fractions[stopCount - 1] = 1f;
+            for (int i = stopCount - 2; i >= 0 && fractions[i] >= fractions[i + 1]; i--) {
+                fractions[i] = Math.nextDown(fractions[i + 1]);
+            }
+        }
+        return fractions;
+    }
+
+    /**
+     * Reads a number with an optional unit, and sets {@link #number} and {@link #unit}.
+     * Lengths are converted to pixels and angles to degrees.
+     *
+     * @return the position after the number, or -1 if there is no number
+     */
+    private int readNumber(int start, int segmentEnd) {
+        int i = skipWhitespace(start);
+        boolean negative = false;
+        if (i < segmentEnd && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        double value = 0;
+        int digits = 0;
+        while (i < segmentEnd && isDigit(text.charAt(i))) {
+            value = value * 10 + (text.charAt(i++) - '0');
+            digits++;
+        }
+        if (i < segmentEnd && text.charAt(i) == '.') {
+            i++;
+            double scale = 0.1;
+            while (i < segmentEnd && isDigit(text.charAt(i))) {
+                value += (text.charAt(i++) - '0') * scale;
+                scale /= 10;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return -1;
+        }
+        number = negative ? -value : value;
+
+        if (i < segmentEnd && text.charAt(i) == '%') {
+            unit = PERCENT;
+            return i + 1;
+        }
+        int unitEnd = i;
+        while (unitEnd < segmentEnd && Character.isLetter(text.charAt(unitEnd))) {
+            unitEnd++;
+        }
+        if (unitEnd == i) {
+            unit = NONE;
+            return i;
+        }
+        double factor;
+        if (wordEquals(i, unitEnd, "px")) {
+            unit = LENGTH;
+            factor = 1;
+        } else if (wordEquals(i, unitEnd, "in")) {
+            unit = LENGTH;
+            factor = 96;
+        } else if (wordEquals(i, unitEnd, "cm")) {
+            unit = LENGTH;
+            factor = 96 / 2.54;
+        } else if (wordEquals(i, unitEnd, "mm")) {
+            unit = LENGTH;
+            factor = 96 / 25.4;
+        } else if (wordEquals(i, unitEnd, "pt")) {
+            unit = LENGTH;
+            factor = 96 / 72.0;
+        } else if (wordEquals(i, unitEnd, "pc")) {
+            unit = LENGTH;
+            factor = 16;
+        } else if (wordEquals(i, unitEnd, "em")) {
+            // relative to the default font size of JavaFX
+            unit = LENGTH;
+            factor = 12;
+        } else if (wordEquals(i, unitEnd, "deg")) {
+            unit = ANGLE;
+            factor = 1;
+        } else if (wordEquals(i, unitEnd, "rad")) {
+            unit = ANGLE;
+            factor = 180 / Math.PI;
+        } else if (wordEquals(i, unitEnd, "grad")) {
+            unit = ANGLE;
+            factor = 0.9;
+        } else if (wordEquals(i, unitEnd, "turn")) {
+            unit = ANGLE;
+            factor = 360;
+        } else {
+            return -1;
+        }
+        number *= factor;
+        return unitEnd;
+    }
+
+    private boolean isNumberStart(int start, int segmentEnd) {
+        int i = start;
+        if (i < segmentEnd && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            i++;
+        }
+        if (i < segmentEnd && text.charAt(i) == '.') {
+            i++;
+        }
+        return i < segmentEnd && isDigit(text.charAt(i));
+    }
+
+    /**
+     * Returns the start of the last whitespace-separated token outside of parentheses in the given range,
+     * or the start of the range if there is only one token.
+     */
+    private int findLastTopLevelToken(int start, int rangeEnd) {
+        int depth = 0;
+        for (int i = rangeEnd - 1; i > start; i--) {
+            char c = text.charAt(i);
+            if (c == ')') {
+                depth++;
+            } else if (c == '(') {
+                depth--;
+            } else if (depth == 0 && Character.isWhitespace(c)) {
+                return i + 1;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Returns the position of the comma that ends the segment starting at the given position,
+     * or the end of the content.
+     */
+    private int findSegmentEnd(int start) {
+        int depth = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private int skipWord(int start, int rangeEnd) {
+        int i = start;
+        while (i < rangeEnd && (Character.isLetter(text.charAt(i)) || text.charAt(i) == '-')) {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean wordEquals(int start, int wordEnd, String lowercase) {
+        if (wordEnd - start != lowercase.length()) {
+            return false;
+        }
+        for (int i = 0; i < lowercase.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != lowercase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
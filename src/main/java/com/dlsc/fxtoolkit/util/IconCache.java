@@ -0,0 +1,189 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.CacheStats;
+import com.dlsc.fxtoolkit.model.ConstantTable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.scale.JBUIScale;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.Icon;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded LRU cache of the preview icons created by the {@link IconCreator}, shared by the gutter,
+ * the completion popup and the previews of a project.
+ * <p>
+ * Icons are keyed by their normalized value, their size and the UI scale. The cache is bounded by
+ * an estimate of the retained memory rather than by the number of entries, as a long SVG path costs
+ * much more than a color.
+ * <p>
+ * Values that refer to constants, like `derive(-fx-base, 20%)` or a gradient with looked-up stops,
+ * are also keyed by the version of the constant table and dropped when a newer snapshot is seen.
+ * All other values, like literal colors and SVG paths, are keyed without a version and stay cached
+ * while the constants are edited.
+ */
+@Service(Service.Level.PROJECT)
+public final class IconCache {
+
+    /**
+     * The estimated number of bytes the cached icons may retain.
+     */
+    private static final long MAX_WEIGHT = 4L * 1024 * 1024;
+
+    /**
+     * The version of the icons whose value does not refer to any constant.
+     */
+    private static final long CONSTANT_FREE = -1;
+
+    /**
+     * Marks a value that has no icon.
+     */
+    private static final Icon NO_ICON = new Icon() {
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+        }
+
+        @Override
+        public int getIconWidth() {
+            return 0;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return 0;
+        }
+    };
+
+    /**
+     * Guarded by this cache's monitor.
+     */
+    private final LinkedHashMap<Key, Icon> icons = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long totalWeight;
+
+    private long constantsVersion = CONSTANT_FREE;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public static IconCache getInstance(@NotNull Project project) {
+        return project.getService(IconCache.class);
+    }
+
+    /**
+     * Returns the cached icon of the given value and size, or creates it with the given factory.
+     * The factory may return null if the value has no icon; that result is cached as well.
+     *
+     * @param table the snapshot of the constants the factory resolves against. An icon created for an older
+     *              snapshot than the latest one seen is returned but not cached.
+     */
+    public @Nullable Icon getIcon(@NotNull String value, int size, @NotNull ConstantTable table,
+                                  @NotNull Supplier<? extends @Nullable Icon> factory) {
+        float scale = JBUIScale.scale(1f);
+        long version = table.getVersion();
+        Key constantFreeKey = new Key(value, size, scale, CONSTANT_FREE);
+        Key versionedKey = new Key(value, size, scale, version);
+        synchronized (this) {
+            if (version > constantsVersion) {
+                dropVersioned();
+                constantsVersion = version;
+            }
+            Icon cached = icons.get(constantFreeKey);
+            if (cached == null) {
+                cached = icons.get(versionedKey);
+            }
+            if (cached != null) {
+                hits.increment();
+                return cached == NO_ICON ? null : cached;
+            }
+        }
+        misses.increment();
+
+        // created outside the lock, two threads may create the same icon but only one is kept
+        Icon icon = factory.get();
+        Key key = ConstantUsageScanner.referencedNames(value).isEmpty() ? constantFreeKey : versionedKey;
+        synchronized (this) {
+            if ((key.version() == CONSTANT_FREE || version == constantsVersion) && !icons.containsKey(key)) {
+                icons.put(key, icon != null ? icon : NO_ICON);
+                totalWeight += key.weight();
+                evict();
+            }
+        }
+        return icon;
+    }
+
+    /**
+     * Returns the hit and miss counts of the cache.
+     */
+    public @NotNull CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum());
+    }
+
+    public synchronized void clear() {
+        icons.clear();
+        totalWeight = 0;
+    }
+
+    private void dropVersioned() {
+        Iterator<Key> iterator = icons.keySet().iterator();
+        while (iterator.hasNext()) {
+            Key key = iterator.next();
+            if (key.version() != CONSTANT_FREE) {
+                totalWeight -= key.weight();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void evict() {
+        Iterator<Key> iterator = icons.keySet().iterator();
+        while (totalWeight > MAX_WEIGHT && iterator.hasNext()) {
+            totalWeight -= iterator.next().weight();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Returns the cache key form of a value: trimmed, without surrounding quotes and with
+     * whitespace runs collapsed to a single space.
+     */
+    static @NotNull String normalize(@NotNull String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            trimmed = trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        StringBuilder sb = new StringBuilder(trimmed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+            } else {
+                if (pendingSpace) sb.append(' ');
+                pendingSpace = false;
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private record Key(String value, int size, float scale, long version) {
+
+        /**
+         * Estimates the retained bytes: the value's characters plus an icon's pixel buffer.
+         */
+        long weight() {
+            int pixels = Math.round(size * scale);
+            return 64 + 2L * value.length() + 4L * pixels * pixels;
+        }
+    }
+}
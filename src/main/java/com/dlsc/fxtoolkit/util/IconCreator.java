@@ -1,8 +1,10 @@
 package com.dlsc.fxtoolkit.util;
 
+import com.dlsc.fxtoolkit.FxCssService;
 import com.dlsc.fxtoolkit.icon.ColorIcon;
 import com.dlsc.fxtoolkit.icon.GradientIcon;
 import com.dlsc.fxtoolkit.icon.SvgIcon;
+import com.dlsc.fxtoolkit.model.ConstantTable;
 import com.dlsc.fxtoolkit.model.GradientInfo;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.fileEditor.FileEditorManager;
@@ -10,38 +12,43 @@ import com.intellij.openapi.project.Project;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.Icon;
+import java.awt.Color;
 
 public final class IconCreator {
 
     private IconCreator() {
     }
 
-    public static Icon createIcon(@NotNull String val, @NotNull Project project, int iconSize) {
-      String value = val.trim();
-        if (value.startsWith("\"") && value.endsWith("\"")) {
-            value = value.substring(1, value.length() - 1);
-        }
-
-        if (ColorConverter.isValidColor(value)) {
-            return ColorConverter.parseColor(value)
-                    .map(color -> new ColorIcon(iconSize, color))
-                    .orElse(null);
-        }
-
-        if (value.startsWith("linear-gradient") || value.startsWith("radial-gradient")) {
-            GradientInfo info = GradientConverter.parse(value, project);
-            return info != null ? new GradientIcon(iconSize, info) : null;
-        }
-
-        if (value.trim().matches("(?i)^\\s*[mlczaqhvstf].*\\d.*")) {
-            return new SvgIcon(value, iconSize, iconSize);
-        }
+    /**
+     * Returns the preview icon of the given value, or null if the value is not previewable.
+     * Icons are shared through the project's {@link IconCache}.
+     *
+     * @param table the snapshot of the constants that looked-up colors are resolved against; callers that
+     *              create several icons pass the same snapshot to all of them
+     */
+    public static Icon createIcon(@NotNull String val, @NotNull Project project, @NotNull ConstantTable table, int iconSize) {
+        String value = IconCache.normalize(val);
+        return IconCache.getInstance(project).getIcon(value, iconSize, table, () -> doCreateIcon(value, project, table, iconSize));
+    }
 
-        return null;
+    private static Icon doCreateIcon(@NotNull String value, @NotNull Project project, @NotNull ConstantTable table, int iconSize) {
+        return switch (ConstantClassifier.classify(value)) {
+            case COLOR -> {
+                // derive(...), ladder(...) and looked-up colors are evaluated against the given constants
+                int argb = ColorFunctionEvaluator.evaluate(value, table);
+                yield argb != ColorConverter.INVALID ? new ColorIcon(iconSize, new Color(argb, true)) : null;
+            }
+            case GRADIENT -> {
+                GradientInfo info = GradientConverter.parse(value, project, table);
+                yield info != null ? new GradientIcon(iconSize, info) : null;
+            }
+            case SVG_PATH -> new SvgIcon(value, iconSize, iconSize);
+            case PAINT_LIST, SIZE, OTHER -> null;
+        };
     }
 
     public static Icon createIcon(@NotNull String val, @NotNull Project project) {
-        return createIcon(val, project, getIconSize(project));
+        return createIcon(val, project, FxCssService.getInstance(project).getSnapshot(), getIconSize(project));
     }
 
     public static int getIconSize(Project project) {
@@ -0,0 +1,218 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.RootConstant;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A purpose-built, single-pass tokenizer that extracts the constants declared inside `.root` blocks
+ * directly from the text of a stylesheet, without building a PSI tree.
+ * <p>
+ * Comments and strings are skipped, at-rule blocks are descended into, and all other rulesets
+ * are skipped by brace matching. Files that do not mention `.root` at all are rejected
+ * before any tokenizing takes place.
+ * <p>
+ * The following built-in properties are not treated as constants:
+ * - -fx-background-color
+ * - -fx-font
+ * - -fx-font-family
+ * - -fx-font-size
+ * - -fx-font-weight
+ * - -fx-font-style
+ */
+public final class RootConstantScanner extends CssTextScanner {
+
+    private static final String ROOT_SELECTOR = ".root";
+
+    private final Map<String, RootConstant> result = new HashMap<>();
+
+    private RootConstantScanner(CharSequence text) {
+        super(text);
+    }
+
+    /**
+     * Returns the constants declared in the `.root` blocks of the given stylesheet text,
+     * keyed by their name without the leading dash.
+     */
+    public static @NotNull Map<String, RootConstant> scan(@NotNull CharSequence text) {
+        if (indexOfRoot(text, 0, text.length()) < 0) {
+            return Map.of();
+        }
+        RootConstantScanner scanner = new RootConstantScanner(text);
+        scanner.scanRules();
+        return scanner.result;
+    }
+
+    /**
+     * Returns true if the given selector text contains a `.root` class selector.
+     */
+    public static boolean containsRootSelector(@NotNull CharSequence selectorText) {
+        return indexOfRoot(selectorText, 0, selectorText.length()) >= 0;
+    }
+
+    /**
+     * Returns true if the given property name declares a constant, i.e. it starts with a dash
+     * and is not one of the built-in properties commonly set on `.root`.
+     */
+    public static boolean isConstantName(@NotNull String propertyName) {
+        if (!propertyName.startsWith("-")) return false;
+        return !(propertyName.equalsIgnoreCase("-fx-background-color") ||
+                propertyName.equalsIgnoreCase("-fx-font") ||
+                propertyName.equalsIgnoreCase("-fx-font-family") ||
+                propertyName.equalsIgnoreCase("-fx-font-size") ||
+                propertyName.equalsIgnoreCase("-fx-font-weight") ||
+                propertyName.equalsIgnoreCase("-fx-font-style"));
+    }
+
+    private void scanRules() {
+        int selectorStart = 0;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '/' && i + 1 < length && text.charAt(i + 1) == '*') {
+                i = skipComment(i);
+            } else if (c == '"' || c == '\'') {
+                i = skipString(i);
+            } else if (c == '{') {
+                int selector = skipWhitespace(selectorStart);
+                if (selector < i && text.charAt(selector) == '@') {
+                    // at-rule block, its content is a list of rulesets again
+                    i++;
+                } else if (selectorContainsRoot(selectorStart, i)) {
+                    i = scanDeclarations(i + 1);
+                } else {
+                    i = skipBlock(i + 1);
+                }
+                selectorStart = i;
+            } else if (c == '}' || c == ';') {
+                i++;
+                selectorStart = i;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Reads the declarations of a `.root` block, starting right after its opening brace.
+     *
+     * @return the position after the closing brace
+     */
+    private int scanDeclarations(int start) {
+        int i = start;
+        while (true) {
+            i = skipWhitespaceAndComments(i);
+            if (i >= length) return length;
+            char c = text.charAt(i);
+            if (c == '}') return i + 1;
+            if (c == ';') {
+                i++;
+                continue;
+            }
+
+            int nameStart = i;
+            while (i < length && isNameChar(text.charAt(i))) {
+                i++;
+            }
+            int nameEnd = i;
+            i = skipWhitespaceAndComments(i);
+            if (nameEnd == nameStart || i >= length || text.charAt(i) != ':') {
+                i = findValueEnd(i);
+                if (i < length && text.charAt(i) == ';') i++;
+                continue;
+            }
+
+            int valueStart = i + 1;
+            int valueEnd = findValueEnd(valueStart);
+            String name = text.subSequence(nameStart, nameEnd).toString();
+            if (isConstantName(name)) {
+                String value = normalizeValue(valueStart, valueEnd);
+                if (!value.isEmpty()) {
+                    result.put(name.substring(1), new RootConstant(value, nameStart));
+                }
+            }
+            i = valueEnd;
+            if (i < length && text.charAt(i) == ';') i++;
+        }
+    }
+
+    /**
+     * Copies the value between the given positions, dropping comments and collapsing whitespace.
+     */
+    private String normalizeValue(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        boolean pendingSpace = false;
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '/' && i + 1 < end && text.charAt(i + 1) == '*') {
+                i = skipComment(i);
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                int stringEnd = Math.min(skipString(i), end);
+                if (pendingSpace && !sb.isEmpty()) sb.append(' ');
+                pendingSpace = false;
+                sb.append(text, i, stringEnd);
+                i = stringEnd;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+            } else {
+                if (pendingSpace && !sb.isEmpty()) sb.append(' ');
+                pendingSpace = false;
+                sb.append(c);
+            }
+            i++;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns true if the selector text in the given range contains a `.root` class selector
+     * outside of comments.
+     */
+    private boolean selectorContainsRoot(int start, int end) {
+        int segmentStart = start;
+        int i = start;
+        while (i + 1 < end) {
+            if (text.charAt(i) == '/' && text.charAt(i + 1) == '*') {
+                if (indexOfRoot(text, segmentStart, i) >= 0) return true;
+                i = skipComment(i);
+                segmentStart = i;
+            } else {
+                i++;
+            }
+        }
+        return segmentStart < end && indexOfRoot(text, segmentStart, end) >= 0;
+    }
+
+    /**
+     * Returns the position of the first `.root` class selector within the given range, or -1.
+     * A match must not be followed by another name character, so `.root-pane` is not a match.
+     */
+    private static int indexOfRoot(CharSequence text, int start, int end) {
+        int last = end - ROOT_SELECTOR.length();
+        for (int i = start; i <= last; i++) {
+            if (text.charAt(i) == '.' && matchesAt(text, i, ROOT_SELECTOR)
+                    && (i + ROOT_SELECTOR.length() == end || !isNameChar(text.charAt(i + ROOT_SELECTOR.length())))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matchesAt(CharSequence text, int offset, String s) {
+        for (int j = 0; j < s.length(); j++) {
+            if (text.charAt(offset + j) != s.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
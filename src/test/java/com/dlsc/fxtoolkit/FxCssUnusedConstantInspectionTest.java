@@ -0,0 +1,35 @@
+package com.dlsc.fxtoolkit;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+public class FxCssUnusedConstantInspectionTest extends BasePlatformTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        myFixture.enableInspections(new FxCssUnusedConstantInspection());
+    }
+
+    public void testUnusedConstantIsReported() {
+        myFixture.configureByText("theme.css", """
+                .root {
+                    -brand-color: #336699;
+                    <warning descr="Constant '-unused-color' is never used">-unused-color</warning>: #ff0000;
+                }
+                .button {
+                    -fx-text-fill: -brand-color;
+                }
+                """);
+        myFixture.checkHighlighting();
+    }
+
+    public void testModenaOverrideIsNotReported() {
+        myFixture.configureByText("dark.css", """
+                .root {
+                    -fx-base: #202020;
+                    -fx-accent: #0096c9;
+                }
+                """);
+        myFixture.checkHighlighting();
+    }
+}
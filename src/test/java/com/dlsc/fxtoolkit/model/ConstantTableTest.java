@@ -0,0 +1,304 @@
+package com.dlsc.fxtoolkit.model;
+
+import com.dlsc.fxtoolkit.util.ColorConverter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConstantTableTest {
+
+    private static final int NAMES = 500;
+
+    @Test
+    public void derivedTablesAgreeWithFlatMap() {
+        Random random = new Random(1);
+        Map<String, String> reference = new HashMap<>();
+        ConstantTable table = ConstantTable.empty();
+        List<ConstantTable> olderTables = new ArrayList<>();
+        List<Map<String, String>> olderReferences = new ArrayList<>();
+
+        for (int step = 0; step < 5000; step++) {
+            // mostly single edits, sometimes a large batch, so layers are merged and flattened
+            int count = step == 0 ? NAMES : random.nextInt(50) == 0 ? random.nextInt(150) : 1 + random.nextInt(3);
+            Map<String, String> changes = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                changes.put(randomName(random), randomValue(random));
+            }
+
+            // every alias before and after the change may resolve differently
+            Set<String> invalidated = new HashSet<>(changes.keySet());
+            addAliases(reference, invalidated);
+            changes.forEach((name, value) -> {
+                if (value == null) {
+                    reference.remove(name);
+                } else {
+                    reference.put(name, value);
+                }
+            });
+            addAliases(reference, invalidated);
+            Set<String> cyclicNames = cyclicNames(reference);
+            invalidated.addAll(cyclicNames);
+            table = table.derive(changes, cyclicNames, invalidated);
+
+            assertEquals(step + 1, table.getVersion());
+            for (int i = 0; i < 20; i++) {
+                String name = randomName(random);
+                assertEquals(reference.get(name), table.getRawValue(name));
+                assertEquals(resolve(reference, name), table.resolve(name));
+                assertEquals(color(reference, name), table.resolveColor(name));
+            }
+            if (step % 250 == 0) {
+                assertEquals(reference, table.getConstants());
+                olderTables.add(table);
+                olderReferences.add(new HashMap<>(reference));
+            }
+        }
+
+        // older snapshots keep their own values and memos
+        for (int i = 0; i < olderTables.size(); i++) {
+            for (int j = 0; j < NAMES; j++) {
+                String name = "c" + j;
+                assertEquals(resolve(olderReferences.get(i), name), olderTables.get(i).resolve(name));
+                assertEquals(color(olderReferences.get(i), name), olderTables.get(i).resolveColor(name));
+            }
+        }
+    }
+
+    @Test
+    public void invalidatedSinceCoversEveryChangedName() {
+        Random random = new Random(2);
+        Map<String, String> reference = new HashMap<>();
+        ConstantTable table = ConstantTable.empty();
+        ConstantTable older = table;
+        Map<String, String> olderReference = new HashMap<>();
+        int flattened = 0;
+
+        for (int step = 0; step < 2000; step++) {
+            int count = step == 0 ? NAMES : 1 + random.nextInt(3);
+            Map<String, String> changes = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                changes.put(randomName(random), randomValue(random));
+            }
+            Set<String> invalidated = new HashSet<>(changes.keySet());
+            addAliases(reference, invalidated);
+            changes.forEach((name, value) -> {
+                if (value == null) {
+                    reference.remove(name);
+                } else {
+                    reference.put(name, value);
+                }
+            });
+            addAliases(reference, invalidated);
+            Set<String> cyclicNames = cyclicNames(reference);
+            invalidated.addAll(cyclicNames);
+            ConstantTable previous = table;
+            table = table.derive(changes, cyclicNames, invalidated);
+
+            // null only when the layers were flattened, which is rare for single edits
+            Set<String> sincePrevious = table.invalidatedSince(previous);
+            if (sincePrevious == null) {
+                flattened++;
+            } else {
+                assertTrue(sincePrevious.containsAll(invalidated));
+            }
+            Set<String> since = table.invalidatedSince(older);
+            if (since != null) {
+                for (int j = 0; j < NAMES; j++) {
+                    String name = "c" + j;
+                    if (!Objects.equals(resolve(olderReference, name), resolve(reference, name))) {
+                        assertTrue(name, since.contains(name));
+                    }
+                }
+            }
+            if (step % 37 == 0) {
+                older = table;
+                olderReference = new HashMap<>(reference);
+            }
+        }
+        assertTrue(String.valueOf(flattened), flattened < 20);
+        assertEquals(Set.of(), table.invalidatedSince(table));
+        assertNull(ConstantTable.empty().invalidatedSince(table));
+    }
+
+    @Test
+    public void memoOfInvalidatedNameIsNotCarriedOver() {
+        Map<String, String> constants = Map.of("base", "#336699", "color", "-base", "other", "#ffffff");
+        ConstantTable table = ConstantTable.empty().derive(constants, Set.of(), constants.keySet());
+        assertEquals("#336699", table.resolve("color"));
+        table.resolve("other");
+
+        ConstantTable next = table.derive(Map.of("base", "#993333"), Set.of(), Set.of("base", "color"));
+
+        assertEquals("#993333", next.resolve("color"));
+        assertEquals(0xFF993333, next.resolveColor("color"));
+        assertEquals("#336699", table.resolve("color"));
+        // carried over from the previous snapshot
+        assertTrue(next.isMemoized("other"));
+    }
+
+    @Test
+    public void removedConstantIsGone() {
+        Map<String, String> constants = Map.of("a", "#000000", "b", "-a");
+        ConstantTable table = ConstantTable.empty().derive(constants, Set.of(), constants.keySet());
+        table.resolve("b");
+
+        Map<String, String> removal = new HashMap<>();
+        removal.put("a", null);
+        ConstantTable next = table.derive(removal, Set.of(), Set.of("a", "b"));
+
+        assertNull(next.getRawValue("a"));
+        assertNull(next.resolve("b"));
+        assertEquals(Map.of("b", "-a"), next.getConstants());
+        assertEquals("#000000", table.resolve("b"));
+    }
+
+    @Test
+    public void cyclicNamesDoNotResolve() {
+        Map<String, String> constants = Map.of("a", "-b", "b", "-a");
+        ConstantTable table = ConstantTable.empty().derive(constants, Set.of("a", "b"), constants.keySet());
+
+        assertNull(table.resolve("a"));
+        assertEquals(ColorConverter.INVALID, table.resolveColor("b"));
+    }
+
+    @Test
+    public void deriveChainOfChangedConstantIsNotUnchanged() {
+        ConstantTable previous = table(theme("#336699"));
+        // resolved, but no color memoized yet
+        previous.resolve("lighter");
+        previous.resolve("lightest");
+        ConstantTable next = previous.derive(Map.of("base", "#993333"), Set.of(), Set.of("base", "lighter", "lightest"));
+
+        assertFalse(next.isUnchangedSince(previous, "lighter", true));
+        assertFalse(next.isUnchangedSince(previous, "lightest", true));
+    }
+
+    @Test
+    public void deriveChainWithMemoizedColorIsNotUnchanged() {
+        ConstantTable previous = table(theme("#336699"));
+        previous.resolveColor("lightest");
+        ConstantTable next = previous.derive(Map.of("base", "#993333"), Set.of(), Set.of("base", "lighter", "lightest"));
+
+        assertFalse(next.isUnchangedSince(previous, "lighter", true));
+        assertFalse(next.isUnchangedSince(previous, "lightest", true));
+    }
+
+    @Test
+    public void gradientReferencingChangedConstantIsNotUnchanged() {
+        ConstantTable previous = table(theme("#336699"));
+        previous.resolve("background");
+        previous.resolveColor("background");
+        ConstantTable next = previous.derive(Map.of("base", "#993333"), Set.of(), Set.of("base", "background"));
+
+        assertFalse(next.isUnchangedSince(previous, "background", true));
+    }
+
+    @Test
+    public void deriveChainWithSameColorIsUnchanged() {
+        ConstantTable previous = table(theme("#336699"));
+        previous.resolveColor("lightest");
+        // the same color, written differently
+        ConstantTable next = previous.derive(Map.of("base", "rgb(51, 102, 153)"), Set.of(), Set.of("base", "lighter", "lightest"));
+
+        assertTrue(next.isUnchangedSince(previous, "lightest", true));
+        assertFalse(next.isUnchangedSince(previous, "base", false));
+    }
+
+    @Test
+    public void literalWithSameValueIsUnchanged() {
+        ConstantTable previous = table(theme("#336699"));
+        ConstantTable next = previous.derive(Map.of("accent", "#ff0000"), Set.of(), Set.of("accent"));
+
+        assertTrue(next.isUnchangedSince(previous, "accent", false));
+    }
+
+    private static ConstantTable table(Map<String, String> constants) {
+        return ConstantTable.empty().derive(constants, Set.of(), constants.keySet());
+    }
+
+    private static Map<String, String> theme(String base) {
+        Map<String, String> constants = new HashMap<>();
+        constants.put("base", base);
+        constants.put("lighter", "derive(-base, 20%)");
+        constants.put("lightest", "derive(-lighter, 20%)");
+        constants.put("background", "linear-gradient(-base, white)");
+        constants.put("accent", "#ff0000");
+        return constants;
+    }
+
+    private static String randomName(Random random) {
+        return "c" + random.nextInt(NAMES);
+    }
+
+    private static String randomValue(Random random) {
+        int kind = random.nextInt(10);
+        if (kind == 0) {
+            return null;
+        }
+        if (kind < 4) {
+            return "-" + randomName(random);
+        }
+        return String.format("#%06x", random.nextInt(0x1000000));
+    }
+
+    private static void addAliases(Map<String, String> constants, Set<String> names) {
+        constants.forEach((name, value) -> {
+            if (value.startsWith("-")) {
+                names.add(name);
+            }
+        });
+    }
+
+    private static Set<String> cyclicNames(Map<String, String> constants) {
+        Set<String> result = new HashSet<>();
+        for (String name : constants.keySet()) {
+            Set<String> seen = new HashSet<>();
+            String current = name;
+            while (seen.add(current)) {
+                String value = constants.get(current);
+                if (value == null || !value.startsWith("-")) {
+                    break;
+                }
+                current = value.substring(1);
+                if (current.equals(name)) {
+                    result.add(name);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String resolve(Map<String, String> constants, String name) {
+        Set<String> seen = new HashSet<>();
+        String current = name;
+        while (seen.add(current)) {
+            String value = constants.get(current);
+            if (value == null) {
+                return null;
+            }
+            if (!value.startsWith("-")) {
+                return value;
+            }
+            current = value.substring(1);
+        }
+        return null;
+    }
+
+    private static int color(Map<String, String> constants, String name) {
+        String value = resolve(constants, name);
+        return value == null ? ColorConverter.INVALID : ColorConverter.parseArgb(value);
+    }
+}
@@ -0,0 +1,107 @@
+package com.dlsc.fxtoolkit.util;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColorConverterTest {
+
+    @Test
+    public void hex() {
+        assertEquals(0xFFFF00AA, ColorConverter.parseArgb("#f0a"));
+        assertEquals(0xFF336699, ColorConverter.parseArgb("#336699"));
+        assertEquals(0x80336699, ColorConverter.parseArgb("#33669980"));
+        assertEquals(0xFFABCDEF, ColorConverter.parseArgb("#ABCDEF"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("#12345"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("#ggg"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("#"));
+    }
+
+    @Test
+    public void rgb() {
+        assertEquals(0xFFFF0000, ColorConverter.parseArgb("rgb(255, 0, 0)"));
+        assertEquals(0xFFFF8000, ColorConverter.parseArgb("rgb(100%, 50%, 0%)"));
+        assertEquals(0x800000FF, ColorConverter.parseArgb("rgba(0, 0, 255, 0.5)"));
+        assertEquals(0xFF1A334D, ColorConverter.parseArgb("rgba(10%, 20%, 30%, 1.0)"));
+        assertEquals(0xFF010203, ColorConverter.parseArgb("RGB(1,2,3)"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("rgb(256, 0, 0)"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("rgb(1.5, 0, 0)"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("rgb(1, 2)"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("rgb(1, 2, 3, 4)"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("rgba(1, 2, 3)"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("rgba(1, 2, 3, 2)"));
+    }
+
+    @Test
+    public void hsb() {
+        assertEquals(0xFFFF0000, ColorConverter.parseArgb("hsb(0, 100%, 100%)"));
+        assertEquals(0xFF008000, ColorConverter.parseArgb("hsb(120, 1.0, 0.5)"));
+        assertEquals(0x400000FF, ColorConverter.parseArgb("hsba(240, 100%, 100%, 0.25)"));
+        assertEquals(0xFF808080, ColorConverter.parseArgb("HSB(0, 0%, 50%)"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("hsb(0, 100%)"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("hsl(0, 100%, 50%)"));
+    }
+
+    @Test
+    public void namesAreCaseInsensitive() {
+        assertEquals(0xFFFF0000, ColorConverter.parseArgb("red"));
+        assertEquals(0xFFFF0000, ColorConverter.parseArgb("RED"));
+        assertEquals(0xFF2F4F4F, ColorConverter.parseArgb("DarkSlateGray"));
+        assertEquals(0x00000000, ColorConverter.parseArgb("transparent"));
+        assertEquals(ColorConverter.INVALID, ColorConverter.parseArgb("reddish"));
+    }
+
+    @Test
+    public void transparentWhiteIsNotInvalid() {
+        // the sentinel is transparent white, so a parsed transparent white is reported as transparent black
+        assertEquals(0x00000000, ColorConverter.parseArgb("#ffffff00"));
+        assertEquals(0x00000000, ColorConverter.parseArgb("rgba(255, 255, 255, 0)"));
+        assertEquals(0x00000000, ColorConverter.parseArgb("hsba(0, 0%, 100%, 0)"));
+        assertTrue(ColorConverter.isValidColor("#ffffff00"));
+    }
+
+    @Test
+    public void surroundingWhitespaceIsIgnored() {
+        assertEquals(0xFFFF0000, ColorConverter.parseArgb("  red\t"));
+        assertEquals(0xFFFF0000, ColorConverter.parseArgb(" rgb( 255 , 0 , 0 ) "));
+        assertEquals(0xFF336699, ColorConverter.parseArgb("-x: #336699;", 3, 11));
+    }
+
+    @Test
+    public void trailingTextIsRejected() {
+        assertFalse(ColorConverter.isValidColor("#336699 x"));
+        assertFalse(ColorConverter.isValidColor("red;"));
+        assertFalse(ColorConverter.isValidColor("red blue"));
+        assertFalse(ColorConverter.isValidColor("rgb(1, 2, 3) x"));
+        assertFalse(ColorConverter.isValidColor("rgb(1, 2, 3)x"));
+        assertFalse(ColorConverter.isValidColor("rgb(1, 2, 3x)"));
+        assertFalse(ColorConverter.isValidColor(""));
+        assertFalse(ColorConverter.isValidColor(null));
+    }
+
+    @Test
+    public void everyJavaFxNamedColorResolves() throws IllegalAccessException {
+        int count = 0;
+        for (Field field : javafx.scene.paint.Color.class.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) || field.getType() != javafx.scene.paint.Color.class) {
+                continue;
+            }
+            javafx.scene.paint.Color color = (javafx.scene.paint.Color) field.get(null);
+            int expected = (int) Math.round(color.getOpacity() * 255) << 24
+                    | (int) Math.round(color.getRed() * 255) << 16
+                    | (int) Math.round(color.getGreen() * 255) << 8
+                    | (int) Math.round(color.getBlue() * 255);
+            String name = field.getName().toLowerCase(Locale.ROOT);
+            assertEquals(name, expected, ColorConverter.parseArgb(name));
+            assertEquals(name, expected, ColorConverter.parseArgb(name.toUpperCase(Locale.ROOT)));
+            count++;
+        }
+        assertTrue(count > 140);
+    }
+}
@@ -0,0 +1,58 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.ConstantTable;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class ColorFunctionEvaluatorTest {
+
+    @Test
+    public void ladderPicksStopByHsbBrightness() {
+        // #0000ff has a luma of 0.11 but an HSB brightness of 1.0, so it gets dark text like in JavaFX
+        assertEquals(0xFF000000, ColorFunctionEvaluator.evaluate("ladder(#0000ff, white 45%, black 46%)", ConstantTable.empty()));
+    }
+
+    @Test
+    public void ladderOfLookedUpSaturatedBase() {
+        Map<String, String> constants = Map.of(
+                "fx-base", "#0000ff",
+                "fx-light-text-color", "white",
+                "fx-dark-text-color", "#333333",
+                "fx-text-base-color", "ladder(-fx-base, -fx-light-text-color 45%, -fx-dark-text-color 46%)");
+        ConstantTable table = ConstantTable.empty().derive(constants, Set.of(), constants.keySet());
+
+        assertEquals(0xFF333333, table.resolveColor("fx-text-base-color"));
+    }
+
+    @Test
+    public void deriveArguments() {
+        ConstantTable table = ConstantTable.empty();
+        int expected = ColorFunctionEvaluator.deriveColor(0xFF808080, 0.2);
+        assertEquals(expected, ColorFunctionEvaluator.evaluate("derive(#808080, 20%)", table));
+        assertEquals(expected, ColorFunctionEvaluator.evaluate("derive(#808080, 20)", table));
+        assertEquals(expected, ColorFunctionEvaluator.evaluate("derive( #808080 ,  +20.0 % )", table));
+        assertEquals(expected, ColorFunctionEvaluator.evaluate("derive(#808080, 2e1%)", table));
+        assertEquals(ColorFunctionEvaluator.deriveColor(0xFF808080, -0.5), ColorFunctionEvaluator.evaluate("derive(#808080, -50%)", table));
+        assertEquals(ColorConverter.INVALID, ColorFunctionEvaluator.evaluate("derive(#808080, 20px)", table));
+        assertEquals(ColorConverter.INVALID, ColorFunctionEvaluator.evaluate("derive(#808080, %)", table));
+        assertEquals(ColorConverter.INVALID, ColorFunctionEvaluator.evaluate("derive(#808080)", table));
+    }
+
+    @Test
+    public void ladderOffsetsAsFractions() {
+        ConstantTable table = ConstantTable.empty();
+        assertEquals(0xFF000000, ColorFunctionEvaluator.evaluate("ladder(#ececec, white 0.49, black 0.5)", table));
+        assertEquals(ColorConverter.INVALID, ColorFunctionEvaluator.evaluate("ladder(#ececec, white 49x, black 50%)", table));
+    }
+
+    @Test
+    public void ladderOfGrays() {
+        ConstantTable table = ConstantTable.empty();
+        assertEquals(0xFF000000, ColorFunctionEvaluator.evaluate("ladder(#ececec, white 49%, black 50%)", table));
+        assertEquals(0xFFFFFFFF, ColorFunctionEvaluator.evaluate("ladder(#202020, white 49%, black 50%)", table));
+    }
+}
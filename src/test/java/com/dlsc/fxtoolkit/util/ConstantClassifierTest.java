@@ -0,0 +1,39 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.ConstantKind;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConstantClassifierTest {
+
+    @Test
+    public void singleValues() {
+        assertEquals(ConstantKind.COLOR, ConstantClassifier.classify("#336699"));
+        assertEquals(ConstantKind.COLOR, ConstantClassifier.classify("derive(-fx-base, 20%)"));
+        assertEquals(ConstantKind.GRADIENT, ConstantClassifier.classify("linear-gradient(to bottom, white, black)"));
+        assertEquals(ConstantKind.SIZE, ConstantClassifier.classify("4 8 4 8"));
+        assertEquals(ConstantKind.SIZE, ConstantClassifier.classify("-1px"));
+        assertEquals(ConstantKind.SVG_PATH, ConstantClassifier.classify("\"M0 0 L10 10 Z\""));
+        assertEquals(ConstantKind.OTHER, ConstantClassifier.classify("bold"));
+    }
+
+    @Test
+    public void listsOfPaints() {
+        assertEquals(ConstantKind.PAINT_LIST, ConstantClassifier.classify("#fff, #000"));
+        assertEquals(ConstantKind.PAINT_LIST, ConstantClassifier.classify("-fx-shadow-highlight-color, -fx-outer-border, -fx-inner-border"));
+        assertEquals(ConstantKind.PAINT_LIST, ConstantClassifier.classify("red green blue transparent"));
+        assertEquals(ConstantKind.PAINT_LIST, ConstantClassifier.classify("rgba(0, 0, 0, 0.2), linear-gradient(to bottom, derive(-fx-base, 10%), -fx-base)"));
+        assertEquals(ConstantKind.OTHER, ConstantClassifier.classify("#fff, bold"));
+    }
+
+    @Test
+    public void paintPropertiesAcceptLists() {
+        assertTrue(ConstantClassifier.kindsForProperty("-fx-background-color").contains(ConstantKind.PAINT_LIST));
+        assertTrue(ConstantClassifier.kindsForProperty("-fx-border-color").contains(ConstantKind.COLOR));
+        assertEquals(1, ConstantClassifier.kindsForProperty("-fx-shape").size());
+        assertNull(ConstantClassifier.kindsForProperty("-my-color"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.dlsc.fxtoolkit.util;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ConstantUsageScannerTest {
+
+    @Test
+    public void findsReferencesInValues() {
+        String css = """
+                .root {
+                    -primary: #336699;
+                    -secondary: derive(-primary, 20%);
+                }
+                .button {
+                    -fx-background-color: -primary, -secondary;
+                    -fx-text-fill: -primary;
+                }
+                """;
+        Map<String, int[]> usages = ConstantUsageScanner.scan(css);
+
+        assertEquals(Set.of("primary", "secondary"), usages.keySet());
+        int[] expected = {css.indexOf("(-primary") + 1, css.indexOf("-primary, -secondary"), css.indexOf("-primary;")};
+        assertArrayEquals(expected, usages.get("primary"));
+        assertArrayEquals(new int[]{css.indexOf("-secondary;")}, usages.get("secondary"));
+    }
+
+    @Test
+    public void propertyNamesAndSelectorsAreNotReferences() {
+        Map<String, int[]> usages = ConstantUsageScanner.scan("""
+                .my-button -inner, .root { -fx-padding: 4px; -declared: red; }
+                """);
+
+        assertEquals(Set.of(), usages.keySet());
+    }
+
+    @Test
+    public void commentsStringsAndUrlsAreSkipped() {
+        Map<String, int[]> usages = ConstantUsageScanner.scan("""
+                /* .button { -fx-text-fill: -commented; } */
+                .button {
+                    -fx-text-fill: /* -inline */ -used;
+                    -fx-shape: "M0 0 L -quoted 1";
+                    -fx-image: url(images/-not-a-constant.png);
+                    -fx-graphic: url("-also-not.png");
+                }
+                """);
+
+        assertEquals(Set.of("used"), usages.keySet());
+    }
+
+    @Test
+    public void nestedBlocks() {
+        Map<String, int[]> usages = ConstantUsageScanner.scan("""
+                @media screen {
+                    .button { -fx-text-fill: -in-media; }
+                }
+                .outer { .inner { -fx-fill: -in-nested; } -fx-stroke: -after-nested; }
+                -top-level: -not-in-block;
+                """);
+
+        assertEquals(Set.of("in-media", "in-nested", "after-nested"), usages.keySet());
+    }
+
+    @Test
+    public void negativeNumbersAreNotReferences() {
+        assertEquals(Set.of(), ConstantUsageScanner.referencedNames("-2px -0.5em -.5em -1"));
+        assertEquals(Set.of("fx-base"), ConstantUsageScanner.referencedNames("derive(-fx-base, -20%)"));
+        assertEquals(Set.of("x"), ConstantUsageScanner.referencedNames("-x -3"));
+        assertEquals(Set.of(), ConstantUsageScanner.referencedNames("top-left 10px-2px"));
+    }
+
+    @Test
+    public void referencedNamesOfGradient() {
+        assertEquals(Set.of("from", "to"), ConstantUsageScanner.referencedNames(
+                "linear-gradient(to bottom, -from 0%, derive(-to, -10%) 100%)"));
+        assertEquals(Set.of(), ConstantUsageScanner.referencedNames("linear-gradient(to bottom, red, blue)"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.ConstantTable;
+import com.dlsc.fxtoolkit.model.GradientInfo;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compares the time and the allocations per parsed gradient of {@link GradientParser} and the
+ * {@link RegexGradientParser} it replaced. This is not a test, run its main method by hand.
+ */
+public final class GradientParserBenchmark {
+
+    private static final String[] VALUES = {
+            "linear-gradient(to right, red, blue)",
+            "linear-gradient(to bottom, #fff 0%, #000 100%)",
+            "linear-gradient(from 0% 0% to 100% 100%, repeat, #ff0000, #00ff00 40%, rgb(10, 20, 30))",
+            "linear-gradient(from 0px 0px to 0px 50px, reflect, red 10px, blue 40px)",
+            "radial-gradient(focus-angle 45deg, focus-distance 20%, center 25% 25%, radius 50%, reflect, red, yellow 75%, blue)",
+            "linear-gradient(#686868 0%, #232723 25%, #373837 75%, #757575 100%)"};
+
+    private static final int ITERATIONS = 300_000;
+
+    private GradientParserBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> constants = Map.of("fx-base", "#ececec");
+        ConstantTable table = ConstantTable.empty().derive(constants, Set.of(), constants.keySet());
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long sink = 0;
+        for (int round = 0; round < 5; round++) {
+            long bytes0 = threads.getThreadAllocatedBytes(threadId);
+            long time0 = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                GradientInfo info = RegexGradientParser.parse(VALUES[i % VALUES.length], table);
+                sink += info != null ? info.hashCode() : 0;
+            }
+            long bytes1 = threads.getThreadAllocatedBytes(threadId);
+            long time1 = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                GradientInfo info = GradientParser.parse(VALUES[i % VALUES.length], table);
+                sink += info != null ? info.hashCode() : 0;
+            }
+            long bytes2 = threads.getThreadAllocatedBytes(threadId);
+            long time2 = System.nanoTime();
+
+            System.out.printf("regex %.0f ns/op %.0f B/op | tokenizer %.0f ns/op %.0f B/op%n",
+                    (time1 - time0) / (double) ITERATIONS, (bytes1 - bytes0) / (double) ITERATIONS,
+                    (time2 - time1) / (double) ITERATIONS, (bytes2 - bytes1) / (double) ITERATIONS);
+        }
+        // keeps the results alive
+        System.out.println(sink);
+    }
+}
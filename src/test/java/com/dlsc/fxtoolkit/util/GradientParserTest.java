@@ -0,0 +1,239 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.ConstantTable;
+import com.dlsc.fxtoolkit.model.CycleMethod;
+import com.dlsc.fxtoolkit.model.GradientInfo;
+import com.dlsc.fxtoolkit.model.GradientType;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class GradientParserTest {
+
+    private static final Color RED = new Color(0xFFFF0000, true);
+    private static final Color BLUE = new Color(0xFF0000FF, true);
+    private static final Color[] RED_BLUE = {RED, BLUE};
+    private static final float[] EVEN = {0f, 1f};
+
+    private static final ConstantTable TABLE = table(Map.of(
+            "fx-base", "#808080",
+            "accent", "#336699",
+            "focus", "-accent"));
+
+    @Test
+    public void linearDefaultsToBottom() {
+        assertEquals(GradientInfo.linear(0f, 0f, 0f, 1f, true, CycleMethod.NO_CYCLE, RED_BLUE, EVEN),
+                parse("linear-gradient(red, blue)"));
+    }
+
+    @Test
+    public void linearToSideOrCorner() {
+        assertLinear(0f, 0f, 1f, 0f, "linear-gradient(to right, red, blue)");
+        assertLinear(1f, 0f, 0f, 0f, "linear-gradient(to left, red, blue)");
+        assertLinear(0f, 1f, 0f, 0f, "linear-gradient(to top, red, blue)");
+        assertLinear(0f, 0f, 0f, 1f, "linear-gradient(to bottom, red, blue)");
+        assertLinear(0f, 0f, 1f, 1f, "linear-gradient(to bottom right, red, blue)");
+        assertLinear(1f, 0f, 0f, 1f, "linear-gradient(to bottom left, red, blue)");
+        assertLinear(0f, 1f, 1f, 0f, "linear-gradient(to right top, red, blue)");
+        assertLinear(1f, 1f, 0f, 0f, "linear-gradient(  TO  top   left , red, blue)  ");
+    }
+
+    @Test
+    public void linearFromTo() {
+        GradientInfo proportional = parse("linear-gradient(from 0% 25% to 100% 50%, red, blue)");
+        assertEquals(GradientInfo.linear(0f, 0.25f, 1f, 0.5f, true, CycleMethod.NO_CYCLE, RED_BLUE, EVEN), proportional);
+
+        GradientInfo pixels = parse("linear-gradient(from 0px 0px to 0 1in, red, blue)");
+        assertEquals(GradientInfo.linear(0f, 0f, 0f, 96f, false, CycleMethod.NO_CYCLE, RED_BLUE, EVEN), pixels);
+    }
+
+    @Test
+    public void cycleMethodInItsOwnSegmentOrAfterTheDirection() {
+        GradientInfo expected = GradientInfo.linear(0f, 0f, 1f, 0f, true, CycleMethod.REPEAT, RED_BLUE, EVEN);
+        assertEquals(expected, parse("linear-gradient(to right repeat, red, blue)"));
+        assertEquals(expected, parse("linear-gradient(to right, repeat, red, blue)"));
+        assertEquals(CycleMethod.REFLECT, parse("linear-gradient(reflect, red, blue)").getCycleMethod());
+        assertEquals(CycleMethod.REFLECT, parse("linear-gradient(from 0% 0% to 50% 50% reflect, red, blue)").getCycleMethod());
+    }
+
+    @Test
+    public void radialHeader() {
+        assertEquals(GradientInfo.radial(90f, 0.2f, 0.25f, 0.75f, 0.5f, true, CycleMethod.REFLECT, RED_BLUE, EVEN),
+                parse("radial-gradient(focus-angle 90deg, focus-distance 20%, center 25% 75%, radius 50%, reflect, red, blue)"));
+        assertEquals(GradientInfo.radial(0f, 0f, 0f, 0f, 20f, false, CycleMethod.NO_CYCLE, RED_BLUE, EVEN),
+                parse("radial-gradient(radius 20px, red, blue)"));
+        assertEquals(GradientInfo.radial(0f, 0f, 10f, 12f, 24f, false, CycleMethod.NO_CYCLE, RED_BLUE, EVEN),
+                parse("radial-gradient(center 10px 1em, radius 2em, red, blue)"));
+        assertEquals(GradientInfo.radial(0f, 0f, 0.5f, 0.5f, 0.5f, true, CycleMethod.NO_CYCLE, RED_BLUE, EVEN),
+                parse("radial-gradient(red, blue)"));
+    }
+
+    @Test
+    public void focusAngleUnits() {
+        assertEquals(180f, parse("radial-gradient(focus-angle 0.5turn, radius 50%, red, blue)").getFocusAngle(), 1e-4f);
+        assertEquals(180f, parse("radial-gradient(focus-angle 3.14159265rad, radius 50%, red, blue)").getFocusAngle(), 1e-4f);
+        assertEquals(180f, parse("radial-gradient(focus-angle 200grad, radius 50%, red, blue)").getFocusAngle(), 1e-4f);
+        assertEquals(45f, parse("radial-gradient(focus-angle 45, radius 50%, red, blue)").getFocusAngle(), 0f);
+    }
+
+    @Test
+    public void nestedColorFunctionStops() {
+        String derived = "derive(-fx-base, 20%)";
+        String nested = "derive(ladder(-fx-base, white 49%, black 50%), -10%)";
+        GradientInfo info = parse("linear-gradient(to right, " + derived + " 10%, -focus, " + nested + " 90%)");
+
+        assertNotNull(info);
+        assertArrayEquals(new Color[]{
+                new Color(ColorFunctionEvaluator.evaluate(derived, TABLE), true),
+                new Color(0xFF336699, true),
+                new Color(ColorFunctionEvaluator.evaluate(nested, TABLE), true)}, info.getColors());
+        assertArrayEquals(new float[]{0.1f, 0.5f, 0.9f}, info.getFractions(), 1e-6f);
+    }
+
+    @Test
+    public void lengthOffsetsAreRelativeToTheGradientLine() {
+        GradientInfo info = parse("linear-gradient(from 0px 0px to 0px 50px, red 10px, blue 40px)");
+        assertArrayEquals(new float[]{0.2f, 0.8f}, info.getFractions(), 1e-6f);
+
+        // proportional geometry has no length to measure against, so the offsets are spread evenly
+        assertArrayEquals(EVEN, parse("linear-gradient(red 10px, blue 40px)").getFractions(), 0f);
+    }
+
+    @Test
+    public void fractionsAreFilledInSortedAndIncreasing() {
+        assertArrayEquals(new float[]{0f, 0.4f, 0.8f}, parse("linear-gradient(red, white, blue 80%)").getFractions(), 1e-6f);
+
+        GradientInfo unsorted = parse("linear-gradient(red 60%, blue 20%)");
+        assertArrayEquals(new Color[]{BLUE, RED}, unsorted.getColors());
+        assertArrayEquals(new float[]{0.2f, 0.6f}, unsorted.getFractions(), 0f);
+
+        float[] equal = parse("linear-gradient(red 50%, white 50%, blue 50%)").getFractions();
+        assertEquals(0.5f, equal[0], 0f);
+        assertEquals(Math.nextUp(0.5f), equal[1], 0f);
+        assertEquals(Math.nextUp(Math.nextUp(0.5f)), equal[2], 0f);
+
+        float[] clamped = parse("linear-gradient(red 120%, blue 150%)").getFractions();
+        assertEquals(1f, clamped[1], 0f);
+        assertEquals(Math.nextDown(1f), clamped[0], 0f);
+    }
+
+    @Test
+    public void singleStopPaintsSolid() {
+        assertEquals(GradientInfo.linear(0f, 0f, 0f, 1f, true, CycleMethod.NO_CYCLE, new Color[]{RED, RED}, EVEN),
+                parse("linear-gradient(red)"));
+    }
+
+    @Test
+    public void unresolvableStopIsPlainBlack() {
+        GradientInfo info = parse("linear-gradient(-missing, derive(-missing, 20%), blue)");
+
+        assertNotNull(info);
+        Color[] colors = info.getColors();
+        // a look and feel dependent color would change the hash of the cached gradient on a theme switch
+        assertEquals(Color.class, colors[0].getClass());
+        assertEquals(0xFF000000, colors[0].getRGB());
+        assertEquals(Color.class, colors[1].getClass());
+        assertEquals(0xFF000000, colors[1].getRGB());
+    }
+
+    @Test
+    public void mixedGeometryUnitsAreRejected() {
+        assertNull(parse("linear-gradient(from 0% 0% to 10px 10px, red, blue)"));
+        assertNull(parse("linear-gradient(from 0px 0% to 10px 10px, red, blue)"));
+        assertNull(parse("radial-gradient(center 50% 50%, radius 10px, red, blue)"));
+        assertNull(parse("linear-gradient(from 0px 0px to 10px 10px to right, red, blue)"));
+    }
+
+    @Test
+    public void unknownUnitsAreRejected() {
+        assertNull(parse("radial-gradient(radius 5qq, red, blue)"));
+        assertNull(parse("radial-gradient(focus-angle 10px, radius 50%, red, blue)"));
+        assertNull(parse("radial-gradient(focus-distance 10deg, radius 50%, red, blue)"));
+        assertNull(parse("linear-gradient(from 0deg 0deg to 1deg 1deg, red, blue)"));
+        assertNull(parse("linear-gradient(red 10qq, blue)"));
+        assertNull(parse("linear-gradient(red 10deg, blue)"));
+    }
+
+    @Test
+    public void malformedGradientsAreRejected() {
+        assertNull(parse("linear-gradient(to nowhere, red, blue)"));
+        assertNull(parse("linear-gradient(to right top bottom, red, blue)"));
+        assertNull(parse("linear-gradient(from 0% 0%, red, blue)"));
+        assertNull(parse("radial-gradient(radius 0%, red, blue)"));
+        assertNull(parse("linear-gradient(to right)"));
+        assertNull(parse("linear-gradient(red, , blue)"));
+        assertNull(parse("linear-gradient(red, blue"));
+        assertNull(parse("linear-gradient red, blue)"));
+        assertNull(parse("conic-gradient(red, blue)"));
+        assertNull(parse("red"));
+        assertNull(parse(""));
+    }
+
+    @Test
+    public void matchesRegexParserOnBaselineCases() {
+        List<String> values = List.of(
+                "linear-gradient(red, blue)",
+                "linear-gradient(#686868 0%, #232723 25%, #373837 75%, #757575 100%)",
+                "linear-gradient(to bottom, #ffffff, #e0e0e0 40%, #c0c0c0)",
+                "linear-gradient(rgba(0, 0, 0, 0.5), hsb(120, 100%, 50%) 60%, transparent)",
+                "linear-gradient(-accent, -focus 30%, -missing)",
+                "linear-gradient(to right, red, blue)",
+                "linear-gradient(to left, #fff 10%, #000 90%)",
+                "linear-gradient(to top, -accent, white)",
+                "radial-gradient(radius 100%, #ff0000, #0000ff)",
+                "radial-gradient(center 50% 50%, radius 80%, white 0%, black 100%)");
+
+        for (String value : values) {
+            GradientInfo expected = RegexGradientParser.parse(value, TABLE);
+            GradientInfo actual = parse(value);
+            assertNotNull(value, expected);
+            assertNotNull(value, actual);
+            assertEquals(value, expected.getType(), actual.getType());
+            assertArrayEquals(value, expected.getColors(), actual.getColors());
+            assertArrayEquals(value, expected.getFractions(), actual.getFractions(), 0f);
+            if (expected.getType() == GradientType.RADIAL) {
+                assertEquals(value, expected, actual);
+            } else {
+                assertSameGradientLine(value, expected, actual);
+            }
+        }
+    }
+
+    /**
+     * The regex parser centered the side directions on the box, e.g. `to right` ran along y = 0.5. A linear
+     * gradient only varies along its line, so two lines with the same direction and the same start position
+     * along it paint the same.
+     */
+    private static void assertSameGradientLine(String value, GradientInfo expected, GradientInfo actual) {
+        float dx = expected.getEndX() - expected.getStartX();
+        float dy = expected.getEndY() - expected.getStartY();
+        assertEquals(value, dx, actual.getEndX() - actual.getStartX(), 0f);
+        assertEquals(value, dy, actual.getEndY() - actual.getStartY(), 0f);
+        assertEquals(value, expected.getStartX() * dx + expected.getStartY() * dy,
+                actual.getStartX() * dx + actual.getStartY() * dy, 0f);
+        assertEquals(value, expected.isProportional(), actual.isProportional());
+        assertEquals(value, expected.getCycleMethod(), actual.getCycleMethod());
+    }
+
+    private static void assertLinear(float startX, float startY, float endX, float endY, String value) {
+        GradientInfo info = parse(value);
+        assertNotNull(value, info);
+        assertEquals(value, GradientInfo.linear(startX, startY, endX, endY, true, CycleMethod.NO_CYCLE, RED_BLUE, EVEN), info);
+    }
+
+    private static GradientInfo parse(String value) {
+        return GradientParser.parse(value, TABLE);
+    }
+
+    private static ConstantTable table(Map<String, String> constants) {
+        return ConstantTable.empty().derive(constants, Set.of(), constants.keySet());
+    }
+}
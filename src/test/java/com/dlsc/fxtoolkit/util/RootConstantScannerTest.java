@@ -0,0 +1,104 @@
+package com.dlsc.fxtoolkit.util;
+
+import com.dlsc.fxtoolkit.model.RootConstant;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RootConstantScannerTest {
+
+    @Test
+    public void readsConstantsOfRootBlock() {
+        String css = """
+                .root {
+                    -primary: #336699;
+                    -secondary:   derive( -primary ,  20% )  ;
+                    -fx-font-size: 12px;
+                    -fx-background-color: white;
+                }
+                """;
+        Map<String, RootConstant> constants = RootConstantScanner.scan(css);
+
+        assertEquals(Set.of("primary", "secondary"), constants.keySet());
+        assertEquals("#336699", constants.get("primary").value());
+        assertEquals(css.indexOf("-primary"), constants.get("primary").offset());
+        assertEquals("derive( -primary , 20% )", constants.get("secondary").value());
+    }
+
+    @Test
+    public void rootInSelectorList() {
+        Map<String, RootConstant> constants = RootConstantScanner.scan("""
+                .button, .root, .label:hover { -a: red; }
+                .root .button { -b: blue; }
+                .root:focused { -c: green }
+                """);
+
+        assertEquals(Set.of("a", "b", "c"), constants.keySet());
+        assertEquals("green", constants.get("c").value());
+    }
+
+    @Test
+    public void otherSelectorsAreSkipped() {
+        Map<String, RootConstant> constants = RootConstantScanner.scan("""
+                .root-pane { -a: red; }
+                .my-root { -b: red; }
+                .rooted, root { -c: red; }
+                .button { -d: red; }
+                .root { -e: red; }
+                """);
+
+        assertEquals(Set.of("e"), constants.keySet());
+    }
+
+    @Test
+    public void commentsAndStrings() {
+        Map<String, RootConstant> constants = RootConstantScanner.scan("""
+                /* .root { -commented: red; } */
+                .button { -fx-graphic: ".root { -quoted: red; }"; }
+                .root /* .button */ {
+                    /* -skipped: red; */
+                    -a: /* dark */ #000000 /* end */;
+                    -icon: "M0 0 ; L1 1 }";
+                    -b: red;
+                }
+                """);
+
+        assertEquals(Set.of("a", "icon", "b"), constants.keySet());
+        assertEquals("#000000", constants.get("a").value());
+        assertEquals("\"M0 0 ; L1 1 }\"", constants.get("icon").value());
+    }
+
+    @Test
+    public void rootInsideAtRuleAndAfterNestedBlocks() {
+        Map<String, RootConstant> constants = RootConstantScanner.scan("""
+                @font-face { font-family: "X"; src: url("x.ttf"); }
+                .button { .nested { -a: red; } -b: red; }
+                @media screen {
+                    .root { -c: red; }
+                }
+                """);
+
+        assertEquals(Set.of("c"), constants.keySet());
+    }
+
+    @Test
+    public void textWithoutRootIsRejected() {
+        assertTrue(RootConstantScanner.scan(".button { -a: red; }").isEmpty());
+        assertTrue(RootConstantScanner.scan(".root-pane { -a: red; }").isEmpty());
+        assertTrue(RootConstantScanner.scan("").isEmpty());
+    }
+
+    @Test
+    public void containsRootSelector() {
+        assertTrue(RootConstantScanner.containsRootSelector(".root"));
+        assertTrue(RootConstantScanner.containsRootSelector(".button, .root"));
+        assertTrue(RootConstantScanner.containsRootSelector(".root.dark"));
+        assertFalse(RootConstantScanner.containsRootSelector(".root-pane"));
+        assertFalse(RootConstantScanner.containsRootSelector("root"));
+    }
+}